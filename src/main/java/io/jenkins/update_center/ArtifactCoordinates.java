@@ -1,5 +1,8 @@
 package io.jenkins.update_center;
 
+import hudson.util.VersionNumber;
+import io.jenkins.update_center.util.VersionNumbers;
+
 import java.util.Objects;
 
 public class ArtifactCoordinates {
@@ -9,6 +12,8 @@ public class ArtifactCoordinates {
     public final String version;
     public final String packaging;
 
+    private volatile VersionNumber versionNumber;
+
     public ArtifactCoordinates(String groupId, String artifactId, String version, String packaging) {
         this.groupId = groupId;
         this.artifactId = artifactId;
@@ -16,6 +21,17 @@ public class ArtifactCoordinates {
         this.packaging = packaging;
     }
 
+    /**
+     * @return the canonical parsed {@link #version}
+     */
+    public VersionNumber getVersionNumber() {
+        VersionNumber ret = versionNumber;
+        if (ret == null) {
+            ret = versionNumber = VersionNumbers.parse(version);
+        }
+        return ret;
+    }
+
     public String getGav() {
         return groupId + ":" + artifactId + ":" + version;
     }
@@ -0,0 +1,165 @@
+package io.jenkins.update_center;
+
+import io.jenkins.update_center.util.Environment;
+import io.jenkins.update_center.util.FetchStatistics;
+import io.jenkins.update_center.util.HttpHelper;
+import io.jenkins.update_center.util.ThreadPools;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+
+import javax.annotation.CheckForNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Downloads files into a local cache using a shared HTTP client and a bounded number of concurrent downloads.
+ *
+ * <p>Concurrent requests for the same URL share a single download.
+ * Failed downloads (HTTP error responses) are recorded by creating a directory at the target location,
+ * so that they are not attempted again.</p>
+ */
+final class ArtifactDownloader {
+    private static final Logger LOGGER = Logger.getLogger(ArtifactDownloader.class.getName());
+
+    private static final int MAX_CONCURRENT_DOWNLOADS = Environment.getInteger("ARTIFACTORY_MAX_CONCURRENT_DOWNLOADS", 8);
+
+    private final OkHttpClient client = new OkHttpClient.Builder()
+            .connectionPool(new ConnectionPool(MAX_CONCURRENT_DOWNLOADS, 5, TimeUnit.MINUTES))
+            .build();
+
+    private final ExecutorService executor = ThreadPools.newExecutor("artifact-download", MAX_CONCURRENT_DOWNLOADS);
+
+    private final ConcurrentMap<String, CompletableFuture<File>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * @return the shared HTTP client, for requests other than downloads
+     */
+    OkHttpClient getClient() {
+        return client;
+    }
+
+    /**
+     * Downloads the specified URL to the target file, unless the target already exists.
+     * Returns once the download has finished.
+     *
+     * @param url the URL to download
+     * @param target the cache file
+     * @return the target file, which is a directory if the server responded with an error
+     * @throws IOException when the download failed for reasons other than an HTTP error response
+     */
+    File download(String url, File target) throws IOException {
+        return download(url, target, null);
+    }
+
+    /**
+     * Like {@link #download(String, File)}, but verifies the SHA-256 checksum of the content while downloading it.
+     *
+     * @param url the URL to download
+     * @param target the cache file
+     * @param sha256 the expected SHA-256 checksum, or {@code null} to skip verification
+     * @return the target file, which is a directory if the server responded with an error
+     * @throws IOException when the download failed for reasons other than an HTTP error response, including a checksum mismatch
+     */
+    File download(String url, File target, @CheckForNull byte[] sha256) throws IOException {
+        try {
+            return downloadAsync(url, target, sha256).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while downloading " + url, e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Failed to download " + url, cause);
+        }
+    }
+
+    /**
+     * Schedules the download of the specified URL to the target file, unless the target already exists.
+     *
+     * @param url the URL to download
+     * @param target the cache file
+     * @return the future result of the download, see {@link #download(String, File)}
+     */
+    Future<File> downloadAsync(String url, File target) {
+        return downloadAsync(url, target, null);
+    }
+
+    private Future<File> downloadAsync(String url, File target, @CheckForNull byte[] sha256) {
+        if (target.exists()) {
+            return CompletableFuture.completedFuture(target);
+        }
+        return inFlight.computeIfAbsent(url, key -> {
+            final CompletableFuture<File> future = new CompletableFuture<>();
+            executor.execute(() -> {
+                try {
+                    future.complete(doDownload(url, target, sha256));
+                } catch (IOException | RuntimeException e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(url);
+                }
+            });
+            return future;
+        });
+    }
+
+    private File doDownload(String url, File target, @CheckForNull byte[] sha256) throws IOException {
+        if (target.exists()) {
+            // another download of the same URL completed between the check in #downloadAsync and now
+            return target;
+        }
+        // High log level, but during regular operation this will indicate when an artifact is newly picked up, so useful to know.
+        LOGGER.log(Level.INFO, "Downloading : " + url + " (not found in cache)");
+
+        final File parentFile = target.getParentFile();
+        if (!parentFile.mkdirs() && !parentFile.isDirectory()) {
+            throw new IOException("Failed to create non-existing directory " + parentFile);
+        }
+
+        Request request = new Request.Builder().url(url).get().build();
+        final long start = System.nanoTime();
+        try (Response response = client.newCall(request).execute()) {
+            if (response.isSuccessful()) {
+                final File tmp = File.createTempFile("download", ".tmp", parentFile);
+                try (ResponseBody body = HttpHelper.body(response); DigestInputStream is = new DigestInputStream(body.byteStream(), DigestUtils.getSha256Digest())) {
+                    FileUtils.copyInputStreamToFile(is, tmp);
+                    if (sha256 != null && !MessageDigest.isEqual(sha256, is.getMessageDigest().digest())) {
+                        throw new IOException("SHA-256 checksum mismatch for " + url);
+                    }
+                    Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    Files.deleteIfExists(tmp.toPath());
+                }
+            } else {
+                LOGGER.log(Level.INFO, "Received HTTP error response: " + response.code() + " for URL: " + url);
+                if (!target.mkdir()) {
+                    LOGGER.log(Level.WARNING, "Failed to create cache 'not found' directory" + target);
+                }
+            }
+        } finally {
+            FetchStatistics.record("artifactory-download", start);
+        }
+        return target;
+    }
+}
@@ -0,0 +1,307 @@
+package io.jenkins.update_center;
+
+import com.alibaba.fastjson.JSONReader;
+import com.alibaba.fastjson.JSONWriter;
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Hex;
+
+import javax.annotation.CheckForNull;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Compact in-memory representation of the files listed by an Artifactory AQL query.
+ *
+ * <p>AQL responses are parsed token by token directly into this index, without materializing the response.
+ * Identifiers are interned, timestamps and sizes are primitives, and checksums are stored as raw bytes.</p>
+ *
+ * <p>The same format is used to persist the index between runs.</p>
+ */
+final class ArtifactoryIndex {
+    private static final Logger LOGGER = Logger.getLogger(ArtifactoryIndex.class.getName());
+
+    /**
+     * Metadata of a single file in the index.
+     */
+    static final class Entry {
+        final ArtifactCoordinates coordinates;
+        final long modified;
+        final long created;
+        final long size;
+        @CheckForNull
+        final byte[] sha1;
+        @CheckForNull
+        final byte[] sha256;
+
+        private Entry(ArtifactCoordinates coordinates, long modified, long created, long size, byte[] sha1, byte[] sha256) {
+            this.coordinates = coordinates;
+            this.modified = modified;
+            this.created = created;
+            this.size = size;
+            this.sha1 = sha1;
+            this.sha256 = sha256;
+        }
+
+        private long getLastChanged() {
+            return Math.max(modified, created);
+        }
+    }
+
+    private final Map<ArtifactCoordinates, Entry> entries = new HashMap<>();
+    private final Map<String, String> strings = new HashMap<>();
+
+    /**
+     * When the full index was last retrieved (epoch milliseconds).
+     */
+    private long fullIndexTimestamp;
+
+    long getFullIndexTimestamp() {
+        return fullIndexTimestamp;
+    }
+
+    void setFullIndexTimestamp(long fullIndexTimestamp) {
+        this.fullIndexTimestamp = fullIndexTimestamp;
+    }
+
+    @CheckForNull
+    Entry get(ArtifactCoordinates coordinates) {
+        return entries.get(coordinates);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the time of the most recent creation or modification of any file in the index (epoch milliseconds)
+     */
+    long getNewestTimestamp() {
+        return entries.values().stream().mapToLong(Entry::getLastChanged).max().orElse(0);
+    }
+
+    Set<ArtifactCoordinates> getArtifacts(String... packagings) {
+        final List<String> packagingList = Arrays.asList(packagings);
+        return entries.keySet().stream().filter(it -> packagingList.contains(it.packaging)).collect(Collectors.toSet());
+    }
+
+    Collection<Entry> getEntries() {
+        return Collections.unmodifiableCollection(entries.values());
+    }
+
+    /**
+     * Reads an AQL response (or a previously persisted index) and adds its entries to this index, replacing existing
+     * entries for the same artifacts.
+     *
+     * @param reader the JSON source
+     * @return the number of entries read
+     */
+    int read(Reader reader) {
+        int count = 0;
+        try (JSONReader json = new JSONReader(reader)) {
+            json.startObject();
+            while (json.hasNext()) {
+                final String key = json.readString();
+                if ("results".equals(key)) {
+                    json.startArray();
+                    while (json.hasNext()) {
+                        final Entry entry = readEntry(json);
+                        if (entry != null) {
+                            entries.put(entry.coordinates, entry);
+                            count++;
+                        }
+                    }
+                    json.endArray();
+                } else if ("fullIndexTimestamp".equals(key)) {
+                    fullIndexTimestamp = json.readLong();
+                } else {
+                    json.readObject(); // e.g. 'range' in AQL responses
+                }
+            }
+            json.endObject();
+        }
+        return count;
+    }
+
+    private Entry readEntry(JSONReader json) {
+        String path = null;
+        String name = null;
+        String sha1 = null;
+        String sha256 = null;
+        long modified = 0;
+        long created = 0;
+        long size = 0;
+
+        json.startObject();
+        while (json.hasNext()) {
+            final String key = json.readString();
+            switch (key) {
+                case "path":
+                    path = json.readString();
+                    break;
+                case "name":
+                    name = json.readString();
+                    break;
+                case "actual_sha1":
+                    sha1 = json.readString();
+                    break;
+                case "sha256":
+                    sha256 = json.readString();
+                    break;
+                case "modified":
+                    modified = toTimestamp(json.readObject());
+                    break;
+                case "created":
+                    created = toTimestamp(json.readObject());
+                    break;
+                case "size":
+                    size = json.readLong();
+                    break;
+                default:
+                    json.readObject(); // e.g. 'repo'
+            }
+        }
+        json.endObject();
+
+        if (path == null || name == null) {
+            LOGGER.log(Level.INFO, "Unexpected entry without path or name: " + path + " / " + name);
+            return null;
+        }
+        final ArtifactCoordinates coordinates = toGav(path, name);
+        if (coordinates == null) {
+            return null;
+        }
+        return new Entry(coordinates, modified, created, size, decodeHex(sha1, path, name), decodeHex(sha256, path, name));
+    }
+
+    /**
+     * Writes this index in a format understood by {@link #read(Reader)}.
+     *
+     * @param writer the destination
+     * @throws IOException when an error occurs while writing
+     */
+    void write(Writer writer) throws IOException {
+        final JSONWriter json = new JSONWriter(writer);
+        json.startObject();
+        json.writeKey("fullIndexTimestamp");
+        json.writeValue(fullIndexTimestamp);
+        json.writeKey("results");
+        json.startArray();
+        for (Entry entry : entries.values()) {
+            final ArtifactCoordinates a = entry.coordinates;
+            json.startObject();
+            json.writeKey("path");
+            json.writeValue(a.groupId.replace('.', '/') + "/" + a.artifactId + "/" + a.version);
+            json.writeKey("name");
+            json.writeValue(a.artifactId + "-" + a.version + "." + a.packaging);
+            json.writeKey("modified");
+            json.writeValue(entry.modified);
+            json.writeKey("created");
+            json.writeValue(entry.created);
+            json.writeKey("size");
+            json.writeValue(entry.size);
+            if (entry.sha1 != null) {
+                json.writeKey("actual_sha1");
+                json.writeValue(Hex.encodeHexString(entry.sha1));
+            }
+            if (entry.sha256 != null) {
+                json.writeKey("sha256");
+                json.writeValue(Hex.encodeHexString(entry.sha256));
+            }
+            json.endObject();
+        }
+        json.endArray();
+        json.endObject();
+        json.flush();
+    }
+
+    private static long toTimestamp(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof Date) {
+            return ((Date) value).getTime();
+        }
+        if (value instanceof String) {
+            try {
+                return OffsetDateTime.parse((String) value).toInstant().toEpochMilli();
+            } catch (DateTimeParseException e) {
+                LOGGER.log(Level.INFO, "Failed to parse timestamp: " + value);
+            }
+        }
+        return 0;
+    }
+
+    private static byte[] decodeHex(String hex, String path, String name) {
+        if (hex == null) {
+            return null;
+        }
+        try {
+            return Hex.decodeHex(hex);
+        } catch (DecoderException e) {
+            LOGGER.log(Level.INFO, "Invalid checksum " + hex + " for " + path + " / " + name);
+            return null;
+        }
+    }
+
+    private String intern(String s) {
+        return strings.computeIfAbsent(s, k -> k);
+    }
+
+    private static boolean containsIllegalChars(String test) {
+        return !test.chars().allMatch(c -> c >= 0x2B && c < 0x7B);
+    }
+
+    private ArtifactCoordinates toGav(String path, String fileName) {
+        if (containsIllegalChars(fileName) || containsIllegalChars(path)) {
+            LOGGER.log(Level.INFO, "Not only printable ascii: " + path + " / " + fileName);
+            return null;
+        }
+
+        int gaToV = path.lastIndexOf('/');
+        if (gaToV <= 0) {
+            LOGGER.log(Level.INFO, "Unexpected path/name: " + path + " / " + fileName);
+            return null;
+        }
+        String version = path.substring(gaToV + 1);
+        String ga = path.substring(0, gaToV);
+
+        int gToA = ga.lastIndexOf('/');
+        if (gToA <= 0) {
+            LOGGER.log(Level.INFO, "Unexpected path/name: " + path + " / " + fileName);
+            return null;
+        }
+        String artifactId = ga.substring(gToA + 1);
+        String groupId = ga.substring(0, gToA).replace('/', '.');
+
+        final int baseNameToExtension = fileName.lastIndexOf('.');
+        String extension = fileName.substring(baseNameToExtension + 1);
+        String baseName = fileName.substring(0, baseNameToExtension);
+
+        final String expectedFileName = artifactId + "-" + version + "." + extension;
+        if (!fileName.equals(expectedFileName)) {
+            LOGGER.log(Level.INFO, "File name: " + fileName + " does not match expected file name: " + expectedFileName);
+            return null;
+        }
+
+        final int classifierBeginIndex = artifactId.length() + 1 + version.length() + 1;
+        if (classifierBeginIndex < baseName.length()) {
+            LOGGER.log(Level.INFO, "Unexpectedly have classifier for path: " + path + " name: " + fileName);
+            return null;
+        }
+        return new ArtifactCoordinates(intern(groupId), intern(artifactId), intern(version), intern(extension));
+    }
+}
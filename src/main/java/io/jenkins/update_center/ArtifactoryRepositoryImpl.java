@@ -1,64 +1,106 @@
 package io.jenkins.update_center;
 
-import com.alibaba.fastjson.JSON;
+import io.jenkins.update_center.util.ContentCache;
 import io.jenkins.update_center.util.Environment;
+import io.jenkins.update_center.util.FetchStatistics;
 import io.jenkins.update_center.util.HttpHelper;
+import io.jenkins.update_center.util.ZipFileUtil;
 import okhttp3.Credentials;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
-import okhttp3.Response;
 import okhttp3.ResponseBody;
-import org.apache.commons.codec.DecoderException;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.IOUtils;
-import org.apache.commons.io.output.TeeOutputStream;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.tools.ant.filters.StringInputStream;
 
-import java.io.ByteArrayOutputStream;
+import javax.annotation.CheckForNull;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarFile;
 import java.util.jar.Manifest;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
 public class ArtifactoryRepositoryImpl extends BaseMavenRepository {
     private static final Logger LOGGER = Logger.getLogger(ArtifactoryRepositoryImpl.class.getName());
 
-    private static final String ARTIFACTORY_URL = "https://repo.jenkins-ci.org/";
-    private static final String ARTIFACTORY_API_URL = "https://repo.jenkins-ci.org/api/";
-    private static final String ARTIFACTORY_AQL_URL = ARTIFACTORY_API_URL + "search/aql";
-    private static final String ARTIFACTORY_MANIFEST_URL = ARTIFACTORY_URL + "%s/%s!/META-INF/MANIFEST.MF";
-    private static final String ARTIFACTORY_ZIP_ENTRY_URL = ARTIFACTORY_URL + "%s/%s!%s";
-    private static final String ARTIFACTORY_FILE_URL = ARTIFACTORY_URL + "%s/%s";
+    private static final String ARTIFACTORY_AQL_URL = "%sapi/search/aql";
+    private static final String ARTIFACTORY_MANIFEST_URL = "%s%s/%s!/META-INF/MANIFEST.MF";
+    private static final String ARTIFACTORY_ZIP_ENTRY_URL = "%s%s/%s!%s";
+    private static final String ARTIFACTORY_FILE_URL = "%s%s/%s";
 
     private static final String AQL_QUERY = "items.find({\"repo\":{\"$eq\":\"releases\"},\"$or\":[{\"name\":{\"$match\":\"*.hpi\"}},{\"name\":{\"$match\":\"*.jpi\"}},{\"name\":{\"$match\":\"*.war\"}}]}).include(\"repo\", \"path\", \"name\", \"modified\", \"created\", \"sha256\", \"actual_sha1\", \"size\")";
 
+    /**
+     * Like {@link #AQL_QUERY}, but only returns items created or modified since the specified date (ISO-8601 format).
+     */
+    private static final String AQL_INCREMENTAL_QUERY = "items.find({\"repo\":{\"$eq\":\"releases\"},\"$and\":[{\"$or\":[{\"name\":{\"$match\":\"*.hpi\"}},{\"name\":{\"$match\":\"*.jpi\"}},{\"name\":{\"$match\":\"*.war\"}}]},{\"$or\":[{\"modified\":{\"$gte\":\"%1$s\"}},{\"created\":{\"$gte\":\"%1$s\"}}]}]}).include(\"repo\", \"path\", \"name\", \"modified\", \"created\", \"sha256\", \"actual_sha1\", \"size\")";
+
+    /**
+     * Incremental index updates ask for items changed since somewhat before the newest item we know about, so that items
+     * deployed around the time of the previous query (but not yet visible to it) are not missed.
+     */
+    private static final long INDEX_UPDATE_OVERLAP_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    /**
+     * Incremental updates do not learn about deleted items, so the full index is retrieved again after this many days.
+     */
+    private static final int INDEX_MAX_AGE_DAYS = Environment.getInteger("ARTIFACTORY_INDEX_MAX_AGE_DAYS", 7);
+
     private final String username;
     private final String password;
 
+    /**
+     * Base URL of the Artifactory instance, with trailing slash.
+     */
+    private final String artifactoryUrl = StringUtils.appendIfMissing(Environment.getString("ARTIFACTORY_URL", "https://repo.jenkins-ci.org/"), "/");
+
     private File cacheDirectory = new File(Environment.getString("ARTIFACTORY_CACHEDIR", "caches/artifactory"));
 
+    /**
+     * Content-addressed store for files listed in the index, see {@link #getStoredFile(String, byte[])}.
+     * Files are named after their SHA-256 checksum, so this cannot collide with cache files either.
+     */
+    private File storeDirectory = new File(Environment.getString("ARTIFACTORY_STORE_DIR", new File(cacheDirectory, "sha256").getPath()));
+
+    /**
+     * Persisted result of {@link #AQL_QUERY}, updated incrementally on subsequent runs.
+     * Cache file names are Base64 encoded URL paths, so this cannot collide with them.
+     */
+    private File indexFile = new File(Environment.getString("ARTIFACTORY_INDEX_FILE", new File(cacheDirectory, "aql-index.json").getPath()));
+
+    private final ArtifactDownloader downloader = new ArtifactDownloader();
+
     private boolean initialized = false;
 
-    private Map<String, JsonFile> files = new HashMap<>();
+    private ArtifactoryIndex index;
     private Set<ArtifactCoordinates> plugins;
     private Set<ArtifactCoordinates> wars;
 
@@ -73,101 +115,133 @@ public class ArtifactoryRepositoryImpl extends BaseMavenRepository {
         return wars;
     }
 
-    private static boolean containsIllegalChars(String test) {
-        return !test.chars().allMatch(c -> c >= 0x2B && c < 0x7B);
+    @Override
+    public Collection<ArtifactCoordinates> listAllPlugins() throws IOException {
+        ensureInitialized();
+        return plugins;
     }
 
-    private static ArtifactCoordinates toGav(JsonFile f) {
-        String fileName = f.name;
-        String path = f.path;
-
-        if (containsIllegalChars(fileName) || containsIllegalChars(path)) {
-            LOGGER.log(Level.INFO, "Not only printable ascii: " + f.path + " / " + f.name);
-            return null;
-        }
+    private static final int CACHE_ENTRY_MAX_LENGTH = 1024 * 64;
 
-        int gaToV = path.lastIndexOf('/');
-        if (gaToV <= 0) {
-            LOGGER.log(Level.INFO, "Unexpected path/name: " + f.path + " / " + f.name);
-            return null;
-        }
-        String version = path.substring(gaToV + 1);
-        String ga = path.substring(0, gaToV);
+    private static final int CACHE_MAX_SIZE = Environment.getInteger("ARTIFACTORY_MEMORY_CACHE_MAX_SIZE", 64 * 1024 * 1024);
 
-        int gToA = ga.lastIndexOf('/');
-        if (gToA <= 0) {
-            LOGGER.log(Level.INFO, "Unexpected path/name: " + f.path + " / " + f.name);
-            return null;
-        }
-        String artifactId = ga.substring(gToA + 1);
-        String groupId = ga.substring(0, gToA).replace('/', '.');
+    /**
+     * Cached value indicating that the file could not be retrieved.
+     */
+    private static final byte[] FAILED = new byte[0];
 
-        final int baseNameToExtension = fileName.lastIndexOf('.');
-        String extension = fileName.substring(baseNameToExtension + 1);
-        String baseName = fileName.substring(0, baseNameToExtension);
+    /**
+     * Contents of small files retrieved via {@link #getFileContent(String)}, keyed by URL.
+     */
+    private final ContentCache cache = new ContentCache(CACHE_MAX_SIZE);
 
-        final String expectedFileName = artifactId + "-" + version + "." + extension;
-        if (!fileName.equals(expectedFileName)) {
-            LOGGER.log(Level.INFO, "File name: " + fileName + " does not match expected file name: " + expectedFileName);
-            return null;
+    private void initialize() throws IOException {
+        if (initialized) {
+            throw new IllegalStateException("re-initialized");
         }
+        LOGGER.log(Level.INFO, "Initializing " + this.getClass().getName());
 
-        final int classifierBeginIndex = artifactId.length() + 1 + version.length() + 1;
-        if (classifierBeginIndex < baseName.length()) {
-            LOGGER.log(Level.INFO, "Unexpectedly have classifier for path: " + path + " name: " + fileName);
-            return null;
-        }
-        return new ArtifactCoordinates(groupId, artifactId, version, extension);
+        index = readIndex();
+        updateIndex();
+        LOGGER.log(Level.INFO, "Initialized " + this.getClass().getName());
     }
 
     @Override
-    public Collection<ArtifactCoordinates> listAllPlugins() throws IOException {
-        ensureInitialized();
-        return plugins;
+    protected synchronized void refreshArtifacts() throws IOException {
+        if (!initialized) {
+            // the index will be read and updated when first needed
+            return;
+        }
+        if (index.getFullIndexTimestamp() < System.currentTimeMillis() - TimeUnit.DAYS.toMillis(INDEX_MAX_AGE_DAYS)) {
+            LOGGER.log(Level.INFO, "Index is older than " + INDEX_MAX_AGE_DAYS + " days, retrieving full index");
+            index = null;
+        }
+        updateIndex();
     }
 
-    private static class JsonFile {
-        public String path; // example: org/acme/whatever/1.0
-        public String name; // example: whatever-1.0.jar
-        public String actual_sha1; // base64
-        public String sha256; // base64
-        public Date modified;
-        // TODO record 'created' date and warn about large discrepancies
-        public long size; // bytes
-    }
+    /**
+     * Retrieves the full index if {@link #index} is {@code null}, otherwise adds the files created or modified since
+     * the newest file in it. Then persists the index and updates the lists of artifacts.
+     */
+    private void updateIndex() throws IOException {
+        OkHttpClient client = downloader.getClient();
+        if (index == null) {
+            index = new ArtifactoryIndex();
+            index.setFullIndexTimestamp(System.currentTimeMillis());
+            query(client, AQL_QUERY);
+            LOGGER.log(Level.INFO, "Retrieved full index with " + index.size() + " files");
+        } else {
+            final long newest = index.getNewestTimestamp();
+            final String since = Instant.ofEpochMilli(Math.max(0, newest - INDEX_UPDATE_OVERLAP_MILLIS)).toString();
+            final int updates = query(client, String.format(AQL_INCREMENTAL_QUERY, since));
+            LOGGER.log(Level.INFO, "Retrieved " + updates + " files created or modified since " + since + ", index has " + index.size() + " files");
+        }
+        writeIndex();
 
-    private static class JsonResponse {
-        public List<JsonFile> results;
+        this.plugins = index.getArtifacts("hpi", "jpi");
+        this.wars = index.getArtifacts("war");
     }
 
-    private Map<String, String> cache = new HashMap<>();
-
-    private static final int CACHE_ENTRY_MAX_LENGTH = 1024 * 64;
-
-    private void initialize() throws IOException {
-        if (initialized) {
-            throw new IllegalStateException("re-initialized");
+    /**
+     * Runs the specified AQL query and adds its results to {@link #index}.
+     *
+     * @return the number of files in the response
+     */
+    private int query(OkHttpClient client, String query) throws IOException {
+        Request request = new Request.Builder().url(String.format(ARTIFACTORY_AQL_URL, artifactoryUrl)).addHeader("Authorization", Credentials.basic(username, password)).post(RequestBody.create(query, MediaType.parse("text/plain; charset=utf-8"))).build();
+        final long start = System.nanoTime();
+        try (final ResponseBody body = HttpHelper.body(client.newCall(request).execute())) {
+            return index.read(body.charStream());
+        } catch (RuntimeException e) {
+            throw new IOException("Unexpected response to AQL query: " + query, e);
+        } finally {
+            FetchStatistics.record("artifactory-aql", start);
         }
-        LOGGER.log(Level.INFO, "Initializing " + this.getClass().getName());
+    }
 
-        OkHttpClient client = new OkHttpClient.Builder().build();
-        Request request = new Request.Builder().url(ARTIFACTORY_AQL_URL).addHeader("Authorization", Credentials.basic(username, password)).post(RequestBody.create(AQL_QUERY, MediaType.parse("text/plain; charset=utf-8"))).build();
-        try (final ResponseBody body = HttpHelper.body(client.newCall(request).execute())) {
-            final MediaType mediaType = body.contentType();
-            JsonResponse json = JSON.parseObject(body.byteStream(), mediaType == null ? StandardCharsets.UTF_8 : mediaType.charset(), JsonResponse.class);
-            json.results.forEach(it -> this.files.put("/" + it.path + "/" + it.name, it));
+    /**
+     * Reads the persisted index, if it exists and is recent enough to be updated incrementally.
+     *
+     * @return the persisted index, or {@code null} if the full index needs to be retrieved
+     */
+    private ArtifactoryIndex readIndex() {
+        if (!indexFile.isFile()) {
+            LOGGER.log(Level.INFO, "No index found at " + indexFile + ", retrieving full index");
+            return null;
+        }
+        try (Reader reader = new BufferedReader(new InputStreamReader(new FileInputStream(indexFile), StandardCharsets.UTF_8))) {
+            final ArtifactoryIndex persisted = new ArtifactoryIndex();
+            persisted.read(reader);
+            if (persisted.getFullIndexTimestamp() < System.currentTimeMillis() - TimeUnit.DAYS.toMillis(INDEX_MAX_AGE_DAYS)) {
+                LOGGER.log(Level.INFO, "Index at " + indexFile + " is older than " + INDEX_MAX_AGE_DAYS + " days, retrieving full index");
+                return null;
+            }
+            return persisted;
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Failed to read index at " + indexFile, e);
+            return null;
         }
-        this.plugins = this.files.values().stream().filter(it -> it.name.endsWith(".hpi") || it.name.endsWith(".jpi")).map(ArtifactoryRepositoryImpl::toGav).filter(Objects::nonNull).collect(Collectors.toSet());
-        this.wars = this.files.values().stream().filter(it -> it.name.endsWith(".war")).map(ArtifactoryRepositoryImpl::toGav).collect(Collectors.toSet());
-        LOGGER.log(Level.INFO, "Initialized " + this.getClass().getName());
     }
 
-    private String hexToBase64(String hex) throws IOException {
+    private void writeIndex() {
+        final File parentFile = indexFile.getAbsoluteFile().getParentFile();
+        if (!parentFile.mkdirs() && !parentFile.isDirectory()) {
+            LOGGER.log(Level.WARNING, "Failed to create directory " + parentFile + " for index");
+            return;
+        }
         try {
-            byte[] decodedHex = Hex.decodeHex(hex);
-            return Base64.encodeBase64String(decodedHex);
-        } catch (DecoderException e) {
-            throw new IOException("failed to convert hex to base64", e);
+            final File tmp = File.createTempFile(indexFile.getName(), ".tmp", parentFile);
+            try {
+                try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tmp), StandardCharsets.UTF_8))) {
+                    index.write(writer);
+                }
+                Files.move(tmp.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp.toPath());
+            }
+        } catch (IOException | RuntimeException e) {
+            // Not fatal, the next run will just need to retrieve the full index again
+            LOGGER.log(Level.WARNING, "Failed to write index to " + indexFile, e);
         }
     }
 
@@ -175,26 +249,24 @@ public class ArtifactoryRepositoryImpl extends BaseMavenRepository {
     public ArtifactMetadata getMetadata(MavenArtifact artifact) throws IOException {
         ensureInitialized();
         ArtifactMetadata ret = new ArtifactMetadata();
-        final JsonFile jsonFile = files.get("/" + getUri(artifact.artifact));
-        try {
-            ret.sha1 = hexToBase64(jsonFile.actual_sha1);
-        } catch (NullPointerException e) {
+        final ArtifactoryIndex.Entry entry = index.get(artifact.artifact);
+        if (entry == null || entry.sha1 == null) {
             LOGGER.log(Level.WARNING, "No artifact: " + artifact.toString());
             return null;
         }
-        String hexSha256 = jsonFile.sha256;
-        if (hexSha256 != null) {
-            ret.sha256 = hexToBase64(hexSha256);
+        ret.sha1 = Base64.encodeBase64String(entry.sha1);
+        if (entry.sha256 != null) {
+            ret.sha256 = Base64.encodeBase64String(entry.sha256);
         } else {
             LOGGER.log(Level.WARNING, "No SHA-256: " + artifact.toString());
             return null;
         }
-        ret.timestamp = jsonFile.modified.getTime();
-        ret.size = jsonFile.size;
+        ret.timestamp = entry.modified;
+        ret.size = entry.size;
         return ret;
     }
 
-    private void ensureInitialized() throws IOException {
+    private synchronized void ensureInitialized() throws IOException {
         if (!initialized) {
             initialize();
             initialized = true;
@@ -209,78 +281,182 @@ public class ArtifactoryRepositoryImpl extends BaseMavenRepository {
 
     @Override
     public Manifest getManifest(MavenArtifact artifact) throws IOException {
-        try (InputStream is = getFileContent(String.format(ARTIFACTORY_MANIFEST_URL, "releases", getUri(artifact.artifact)))) {
+        try (InputStream is = getFileContent(String.format(ARTIFACTORY_MANIFEST_URL, artifactoryUrl, "releases", getUri(artifact.artifact)), artifact.artifact, JarFile.MANIFEST_NAME)) {
             return new Manifest(is);
         }
     }
 
-    private InputStream getFileContent(String url) throws IOException {
-        if (this.cache.containsKey(url)) {
-            String entry = this.cache.get(url);
-            if (entry == null) {
-                throw new IOException("Failed to retrieve content of " + url + " (cached)");
+    /**
+     * Returns the content of an entry in an archive, from a local copy of the archive if there is one,
+     * otherwise from the specified URL.
+     *
+     * @param url the remote URL of the archive entry
+     * @param archive the archive
+     * @param path the path of the entry in the archive
+     */
+    private InputStream getFileContent(String url, ArtifactCoordinates archive, String path) throws IOException {
+        final byte[] entry = this.cache.get(url);
+        if (entry == FAILED) {
+            throw new IOException("Failed to retrieve content of " + url + " (cached)");
+        }
+        if (entry != null) {
+            return new ByteArrayInputStream(entry);
+        }
+
+        final byte[] localContent = getLocalArchiveEntry(archive, path);
+        if (localContent != null) {
+            if (localContent.length <= CACHE_ENTRY_MAX_LENGTH) {
+                this.cache.put(url, localContent);
             }
-            return new StringInputStream(entry);
+            return new ByteArrayInputStream(localContent);
+        }
+
+        final File cacheFile = downloader.download(url, getCacheFile(url));
+        if (cacheFile.isDirectory()) {
+            // indicator that this is a cached error
+            this.cache.put(url, FAILED);
+            throw new IOException("Failed to retrieve content of " + url + " (cached)");
+        }
+        if (cacheFile.length() <= CACHE_ENTRY_MAX_LENGTH) {
+            final byte[] content = FileUtils.readFileToByteArray(cacheFile);
+            this.cache.put(url, content);
+            return new ByteArrayInputStream(content);
         }
-        File cacheFile = getFile(url);
         return new FileInputStream(cacheFile);
     }
 
-    private File getFile(final String url) throws IOException {
+    /**
+     * @return the in-memory cache of small file contents
+     */
+    public ContentCache getContentCache() {
+        return cache;
+    }
+
+    private File getCacheFile(String url) throws IOException {
         String urlBase64 = Base64.encodeBase64String(new URL(url).getPath().getBytes(StandardCharsets.UTF_8));
-        File cacheFile = new File(cacheDirectory, urlBase64);
+        return new File(cacheDirectory, urlBase64);
+    }
 
-        if (!cacheFile.exists()) {
-            // High log level, but during regular operation this will indicate when an artifact is newly picked up, so useful to know.
-            LOGGER.log(Level.INFO, "Downloading : " + url + " (not found in cache)");
+    private File getFile(final String url) throws IOException {
+        File cacheFile = downloader.download(url, getCacheFile(url));
+        if (cacheFile.isDirectory()) {
+            // indicator that this is a cached error
+            throw new IOException("Failed to retrieve content of " + url + " (cached)");
+        }
+        return cacheFile;
+    }
 
-            final File parentFile = cacheFile.getParentFile();
-            if (!parentFile.mkdirs() && !parentFile.isDirectory()) {
-                throw new IllegalStateException("Failed to create non-existing directory " + parentFile);
+    /**
+     * Downloads the manifests of all specified plugin releases, as well as the POM and {@code index.jelly} of the latest
+     * release of each plugin, using concurrent requests. Archive entries available from local copies of the archive are skipped.
+     *
+     * @param plugins the plugins whose files should be downloaded
+     */
+    @Override
+    public void prefetch(Collection<Plugin> plugins) throws IOException {
+        List<String> urls = new ArrayList<>();
+        for (Plugin plugin : plugins) {
+            if (plugin.getArtifacts().isEmpty()) {
+                continue;
             }
-            try {
-                OkHttpClient.Builder builder = new OkHttpClient.Builder();
-                OkHttpClient client = builder.build();
-                Request request = new Request.Builder().url(url).get().build();
-                final Response response = client.newCall(request).execute();
-                if (response.isSuccessful()) {
-                    try (final ResponseBody body = HttpHelper.body(response)) {
-                        try (InputStream inputStream = body.byteStream(); ByteArrayOutputStream baos = new ByteArrayOutputStream(); FileOutputStream fos = new FileOutputStream(cacheFile); TeeOutputStream tos = new TeeOutputStream(fos, baos)) {
-                            IOUtils.copy(inputStream, tos);
-                            if (baos.size() <= CACHE_ENTRY_MAX_LENGTH) {
-                                final String value = baos.toString("UTF-8");
-                                LOGGER.log(Level.FINE, () -> "Caching in memory: " + url + " with content: " + value);
-                                this.cache.put(url, value);
-                            }
-                        }
-                    }
-                } else {
-                    LOGGER.log(Level.INFO, "Received HTTP error response: " + response.code() + " for URL: " + url);
-                    if (!cacheFile.mkdir()) {
-                        LOGGER.log(Level.WARNING, "Failed to create cache 'not found' directory" + cacheFile);
-                    }
+            for (HPI hpi : plugin.getArtifacts().values()) {
+                if (getLocalFile(hpi.artifact) == null) {
+                    urls.add(String.format(ARTIFACTORY_MANIFEST_URL, artifactoryUrl, "releases", getUri(hpi.artifact)));
                 }
-            } catch (RuntimeException e) {
-                throw new IOException(e);
             }
-        } else {
-            if (cacheFile.isDirectory()) {
-                // indicator that this is a cached error
-                this.cache.put(url, null);
-                throw new IOException("Failed to retrieve content of " + url + " (cached)");
-            } else {
-                // read from cached file
-                if (cacheFile.length() <= CACHE_ENTRY_MAX_LENGTH) {
-                    this.cache.put(url, FileUtils.readFileToString(cacheFile, StandardCharsets.UTF_8));
-                }
+            final ArtifactCoordinates latest = plugin.getLatest().artifact;
+            final ArtifactCoordinates jar = new ArtifactCoordinates(latest.groupId, latest.artifactId, latest.version, "jar");
+            if (getLocalFile(latest) == null && getLocalFile(jar) == null) {
+                urls.add(String.format(ARTIFACTORY_ZIP_ENTRY_URL, artifactoryUrl, "releases", getUri(jar), "/index.jelly"));
+            }
+            final ArtifactCoordinates pom = new ArtifactCoordinates(latest.groupId, latest.artifactId, latest.version, "pom");
+            if (!new File(LOCAL_REPO, getUri(pom)).exists()) {
+                urls.add(String.format(ARTIFACTORY_FILE_URL, artifactoryUrl, "releases", getUri(pom)));
             }
         }
-        return cacheFile;
+
+        List<Future<File>> downloads = new ArrayList<>();
+        for (String url : urls) {
+            final File cacheFile = getCacheFile(url);
+            if (!cacheFile.exists()) {
+                downloads.add(downloader.downloadAsync(url, cacheFile));
+            }
+        }
+        LOGGER.log(Level.FINE, "Prefetching " + downloads.size() + " of " + urls.size() + " files");
+
+        int failed = 0;
+        for (Future<File> download : downloads) {
+            try {
+                download.get();
+            } catch (ExecutionException e) {
+                LOGGER.log(Level.FINE, "Failed to prefetch file", e.getCause());
+                failed++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while prefetching files", e);
+            }
+        }
+        LOGGER.log(Level.FINE, "Prefetched " + (downloads.size() - failed) + " files, " + failed + " failed");
     }
 
     @Override
     public InputStream getZipFileEntry(MavenArtifact artifact, String path) throws IOException {
-        return getFileContent(String.format(ARTIFACTORY_ZIP_ENTRY_URL, "releases", getUri(artifact.artifact), StringUtils.prependIfMissing(path, "/")));
+        return getFileContent(String.format(ARTIFACTORY_ZIP_ENTRY_URL, artifactoryUrl, "releases", getUri(artifact.artifact), StringUtils.prependIfMissing(path, "/")), artifact.artifact, path);
+    }
+
+    /**
+     * Reads an entry from a local copy of the specified archive.
+     * Entries of plugin jars are read from the jar nested in a local copy of the plugin HPI if there is no local copy of the jar.
+     *
+     * @param archive the archive
+     * @param path the path of the entry in the archive
+     * @return the content of the entry, or {@code null} if there is no local copy of the archive or it does not contain the entry
+     */
+    @CheckForNull
+    private byte[] getLocalArchiveEntry(ArtifactCoordinates archive, String path) throws IOException {
+        try {
+            final File localArchive = getLocalFile(archive);
+            if (localArchive != null) {
+                return ZipFileUtil.readEntry(localArchive, path);
+            }
+            if ("jar".equals(archive.packaging)) {
+                for (String packaging : new String[] { "hpi", "jpi" }) {
+                    final File localPlugin = getLocalFile(new ArtifactCoordinates(archive.groupId, archive.artifactId, archive.version, packaging));
+                    if (localPlugin != null) {
+                        return ZipFileUtil.readNestedEntry(localPlugin, "WEB-INF/lib/" + archive.artifactId + ".jar", path);
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.FINE, e, () -> "Failed to read " + path + " from local copy of " + archive);
+        }
+        return null;
+    }
+
+    /**
+     * @param artifact the artifact
+     * @return a previously downloaded or locally built copy of the artifact, or {@code null} if there is none
+     */
+    @CheckForNull
+    private File getLocalFile(ArtifactCoordinates artifact) throws IOException {
+        final String uri = getUri(artifact);
+        final File localFile = new File(LOCAL_REPO, uri);
+        if (localFile.isFile()) {
+            return localFile;
+        }
+        ensureInitialized();
+        final ArtifactoryIndex.Entry entry = index.get(artifact);
+        if (entry != null && entry.sha256 != null) {
+            final File storedFile = getStoreFile(entry.sha256);
+            if (storedFile.isFile()) {
+                return storedFile;
+            }
+        }
+        final File cacheFile = getCacheFile(String.format(ARTIFACTORY_FILE_URL, artifactoryUrl, "releases", uri));
+        if (cacheFile.isFile()) {
+            return cacheFile;
+        }
+        return null;
     }
 
     @Override
@@ -291,7 +467,65 @@ public class ArtifactoryRepositoryImpl extends BaseMavenRepository {
         if (localFile.exists()) {
             return localFile;
         }
-        return getFile(String.format(ARTIFACTORY_FILE_URL, "releases", uri));
+        final String url = String.format(ARTIFACTORY_FILE_URL, artifactoryUrl, "releases", uri);
+        ensureInitialized();
+        final ArtifactoryIndex.Entry entry = index.get(artifact);
+        if (entry != null && entry.sha256 != null) {
+            return getStoredFile(url, entry.sha256);
+        }
+        return getFile(url);
+    }
+
+    /**
+     * Returns the file with the specified content from the content-addressed store, downloading it if necessary.
+     * Files previously downloaded into the URL-based cache are moved into the store if their checksum matches.
+     *
+     * @param url the URL to download the file from
+     * @param sha256 the SHA-256 checksum of the file
+     * @return the stored file
+     * @throws IOException when the file cannot be retrieved, or has unexpected content
+     */
+    private File getStoredFile(String url, byte[] sha256) throws IOException {
+        final File storedFile = getStoreFile(sha256);
+        if (storedFile.isFile()) {
+            return storedFile;
+        }
+
+        final File legacyFile = getCacheFile(url);
+        if (legacyFile.isFile()) {
+            final boolean matches;
+            try (InputStream is = new FileInputStream(legacyFile)) {
+                matches = MessageDigest.isEqual(sha256, DigestUtils.sha256(is));
+            }
+            if (matches) {
+                final File parentFile = storedFile.getParentFile();
+                if (!parentFile.mkdirs() && !parentFile.isDirectory()) {
+                    throw new IOException("Failed to create non-existing directory " + parentFile);
+                }
+                try {
+                    Files.move(legacyFile.toPath(), storedFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException e) {
+                    if (!storedFile.isFile()) {
+                        throw e;
+                    }
+                    // moved concurrently
+                }
+                return storedFile;
+            }
+            LOGGER.log(Level.WARNING, "Ignoring cached file " + legacyFile + " for " + url + " with unexpected SHA-256 checksum");
+        }
+
+        final File file = downloader.download(url, storedFile, sha256);
+        if (file.isDirectory()) {
+            // indicator that this is a cached error
+            throw new IOException("Failed to retrieve content of " + url + " (cached)");
+        }
+        return file;
+    }
+
+    private File getStoreFile(byte[] sha256) {
+        final String hex = Hex.encodeHexString(sha256);
+        return new File(storeDirectory, hex.substring(0, 2) + "/" + hex);
     }
 
     private static final File LOCAL_REPO = new File(new File(System.getProperty("user.home")), ".m2/repository");
@@ -7,7 +7,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
@@ -29,10 +31,53 @@ public abstract class BaseMavenRepository implements MavenRepository {
             throw new Error(e);
         }
     }
-    public Collection<Plugin> listJenkinsPlugins() throws IOException {
 
-        Map<String, Plugin> plugins =
-                new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private Collection<Plugin> plugins;
+
+    /**
+     * The release coordinates of each plugin in {@link #plugins}, to decide which plugins can be retained by {@link #refresh()}.
+     */
+    private Map<String, Set<ArtifactCoordinates>> pluginCoordinates = Collections.emptyMap();
+
+    /**
+     * Lists all plugins in this repository.
+     * The result is computed once and shared by all callers, so that data loaded lazily by the {@link HPI}s is retained.
+     * It cannot be modified, use {@link Plugin#filter(java.util.function.Predicate)} to derive subsets.
+     *
+     * @return all plugins, sorted by artifact ID
+     * @throws IOException when an exception contacting the artifacts repository occurs
+     */
+    public synchronized Collection<Plugin> listJenkinsPlugins() throws IOException {
+        if (plugins == null) {
+            plugins = Collections.unmodifiableCollection(createPluginList());
+        }
+        return plugins;
+    }
+
+    /**
+     * Updates the list of artifacts in this repository, e.g. to pick up new releases in a long-running process.
+     * Plugins whose releases are unchanged are retained in {@link #listJenkinsPlugins()} along with the data their
+     * {@link HPI}s have loaded, other plugins are created again.
+     *
+     * @throws IOException when an exception contacting the artifacts repository occurs
+     */
+    public synchronized void refresh() throws IOException {
+        refreshArtifacts();
+        if (plugins != null) {
+            plugins = Collections.unmodifiableCollection(createPluginList());
+        }
+    }
+
+    /**
+     * Discards or updates the artifacts listed by {@link #listAllPlugins()} and {@link #listAllJenkinsWars(String)}.
+     * Does nothing by default.
+     */
+    protected void refreshArtifacts() throws IOException {
+    }
+
+    private Collection<Plugin> createPluginList() throws IOException {
+
+        Map<String, Set<ArtifactCoordinates>> coordinates = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
 
         Set<String> excluded = new HashSet<>();
         final Collection<ArtifactCoordinates> results = listAllPlugins();
@@ -52,17 +97,28 @@ public abstract class BaseMavenRepository implements MavenRepository {
                 continue;
             }
 
-            Plugin plugin = plugins.get(artifactCoordinates.artifactId);
-            if (plugin == null) {
-                plugin = new Plugin(artifactCoordinates.artifactId);
-                plugins.put(artifactCoordinates.artifactId, plugin);
-            }
-            HPI hpi = new HPI(this, artifactCoordinates, plugin);
+            coordinates.computeIfAbsent(artifactCoordinates.artifactId, k -> new LinkedHashSet<>()).add(artifactCoordinates);
+        }
 
-            plugin.addArtifact(hpi);
+        final Map<String, Plugin> previous = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        if (this.plugins != null) {
+            for (Plugin plugin : this.plugins) {
+                previous.put(plugin.getArtifactId(), plugin);
+            }
         }
+
         final TreeMap<String, Plugin> ret = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
-        ret.putAll(plugins);
+        for (Map.Entry<String, Set<ArtifactCoordinates>> entry : coordinates.entrySet()) {
+            Plugin plugin = previous.get(entry.getKey());
+            if (plugin == null || !entry.getValue().equals(pluginCoordinates.get(entry.getKey()))) {
+                plugin = new Plugin(entry.getKey());
+                for (ArtifactCoordinates artifactCoordinates : entry.getValue()) {
+                    plugin.addArtifact(new HPI(this, artifactCoordinates, plugin));
+                }
+            }
+            ret.put(entry.getKey(), plugin);
+        }
+        pluginCoordinates = coordinates;
         return ret.values();
     }
 
@@ -89,9 +145,9 @@ public abstract class BaseMavenRepository implements MavenRepository {
                 LOGGER.log(Level.CONFIG, "Ignoring " + artifactCoordinates.artifactId + ", version " + artifactCoordinates.version + " because this version is blacklisted");
                 continue;
             }
-            if (cap != null && new VersionNumber(artifactCoordinates.version).compareTo(cap) > 0) continue;
+            VersionNumber version = artifactCoordinates.getVersionNumber();
+            if (cap != null && version.compareTo(cap) > 0) continue;
 
-            VersionNumber version = new VersionNumber(artifactCoordinates.version);
             releases.put(version, new JenkinsWar(this, artifactCoordinates));
         }
     }
@@ -0,0 +1,211 @@
+package io.jenkins.update_center;
+
+import com.alibaba.fastjson.JSON;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.jenkins.update_center.util.Environment;
+
+import javax.annotation.CheckForNull;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Generates update sites repeatedly in a long-running process, so that the repository model and caches stay in memory.
+ * Generation starts immediately, and then whenever it is requested via HTTP, the trigger file is modified, or the
+ * interval has passed since the previous generation started. Requests while generating are coalesced into one.
+ *
+ * <p>The HTTP server only listens on the loopback interface. {@code POST /regenerate} requests generation,
+ * {@code GET /status} describes the most recent generation.</p>
+ */
+class Daemon {
+    private static final Logger LOGGER = Logger.getLogger(Daemon.class.getName());
+
+    /**
+     * How often the trigger file and schedule are checked.
+     */
+    private static final int POLL_MILLIS = Environment.getInteger("DAEMON_POLL_MILLIS", 1000);
+
+    interface Cycle {
+        void run() throws Exception;
+    }
+
+    @CheckForNull
+    private final Integer port;
+    @CheckForNull
+    private final File triggerFile;
+    @CheckForNull
+    private final Integer intervalMinutes;
+
+    private HttpServer server;
+
+    // guarded by this
+    private boolean requested;
+    private boolean stopped;
+    private boolean running;
+    private int cycles;
+    private Instant lastStart;
+    private long lastDurationMillis;
+    private String lastError;
+
+    /**
+     * @param port the port of the HTTP server, 0 for any free port, or {@code null} to not start one
+     * @param triggerFile the file whose modification triggers generation
+     * @param intervalMinutes the number of minutes after which generation is started again
+     */
+    Daemon(@CheckForNull Integer port, @CheckForNull File triggerFile, @CheckForNull Integer intervalMinutes) {
+        this.port = port;
+        this.triggerFile = triggerFile;
+        this.intervalMinutes = intervalMinutes;
+    }
+
+    /**
+     * Starts the HTTP server, if any.
+     */
+    void start() throws IOException {
+        if (port == null) {
+            return;
+        }
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/regenerate", exchange -> {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, null);
+                return;
+            }
+            request();
+            respond(exchange, 202, getStatus());
+        });
+        server.createContext("/status", exchange -> respond(exchange, 200, getStatus()));
+        server.start();
+        LOGGER.log(Level.INFO, "Listening for regeneration requests on http://" + server.getAddress().getHostString() + ":" + getPort() + "/regenerate");
+    }
+
+    /**
+     * @return the port the HTTP server listens on
+     */
+    int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private static void respond(HttpExchange exchange, int status, @CheckForNull Map<String, Object> body) throws IOException {
+        try {
+            if (body == null) {
+                exchange.sendResponseHeaders(status, -1);
+                return;
+            }
+            final byte[] bytes = JSON.toJSONString(body).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Requests generation. If generation is in progress, it will be started again once done.
+     */
+    synchronized void request() {
+        requested = true;
+        notifyAll();
+    }
+
+    /**
+     * Makes {@link #run(Cycle)} return once the current generation, if any, is done.
+     */
+    synchronized void stop() {
+        stopped = true;
+        notifyAll();
+    }
+
+    synchronized Map<String, Object> getStatus() {
+        Map<String, Object> ret = new LinkedHashMap<>();
+        ret.put("cycles", cycles);
+        ret.put("running", running);
+        ret.put("requested", requested);
+        ret.put("lastStart", lastStart == null ? null : lastStart.toString());
+        ret.put("lastDurationMillis", lastDurationMillis);
+        ret.put("lastError", lastError);
+        return ret;
+    }
+
+    /**
+     * Runs the specified cycle until {@link #stop()} is called. Failures are logged, and do not end the daemon.
+     *
+     * @param cycle generates the update sites
+     */
+    void run(Cycle cycle) throws InterruptedException {
+        long triggerFileModified = triggerFile == null ? 0 : triggerFile.lastModified();
+        try {
+            while (true) {
+                final long start = System.nanoTime();
+                runCycle(cycle);
+
+                synchronized (this) {
+                    while (true) {
+                        if (stopped) {
+                            return;
+                        }
+                        if (requested) {
+                            break;
+                        }
+                        if (triggerFile != null) {
+                            final long modified = triggerFile.lastModified();
+                            if (modified != triggerFileModified) {
+                                triggerFileModified = modified;
+                                if (modified != 0) {
+                                    LOGGER.log(Level.INFO, "Trigger file " + triggerFile + " was modified");
+                                    break;
+                                }
+                            }
+                        }
+                        if (intervalMinutes != null && System.nanoTime() - start >= TimeUnit.MINUTES.toNanos(intervalMinutes)) {
+                            LOGGER.log(Level.INFO, "Scheduled generation after " + intervalMinutes + " minutes");
+                            break;
+                        }
+                        wait(POLL_MILLIS);
+                    }
+                    requested = false;
+                }
+            }
+        } finally {
+            if (server != null) {
+                server.stop(0);
+            }
+        }
+    }
+
+    private void runCycle(Cycle cycle) {
+        final long start = System.nanoTime();
+        synchronized (this) {
+            running = true;
+            lastStart = Instant.now();
+        }
+        String error = null;
+        try {
+            cycle.run();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Failed to generate update sites, waiting for next trigger", e);
+            error = e.toString();
+        }
+        final int count;
+        synchronized (this) {
+            running = false;
+            count = ++cycles;
+            lastDurationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            lastError = error;
+        }
+        LOGGER.log(Level.INFO, "Finished generation " + count + (error == null ? "" : " with errors"));
+    }
+}
@@ -2,10 +2,9 @@ package io.jenkins.update_center;
 
 import io.jenkins.update_center.util.Environment;
 
-public class DefaultMavenRepositoryBuilder {
+import java.io.File;
 
-    private static String ARTIFACTORY_API_USERNAME = Environment.getString("ARTIFACTORY_USERNAME");
-    private static String ARTIFACTORY_API_PASSWORD = Environment.getString("ARTIFACTORY_PASSWORD");
+public class DefaultMavenRepositoryBuilder {
 
     private DefaultMavenRepositoryBuilder () {
         
@@ -15,10 +14,16 @@ public class DefaultMavenRepositoryBuilder {
     
     public static synchronized BaseMavenRepository getInstance() {
         if (instance == null) {
-            if (ARTIFACTORY_API_PASSWORD != null && ARTIFACTORY_API_USERNAME != null) {
-                instance = new ArtifactoryRepositoryImpl(ARTIFACTORY_API_USERNAME, ARTIFACTORY_API_PASSWORD);
+            final String username = Environment.getString("ARTIFACTORY_USERNAME");
+            final String password = Environment.getString("ARTIFACTORY_PASSWORD");
+            // Directory in Maven repository layout to use instead of Artifactory, e.g. a local mirror of the releases repository
+            final String mavenRepositoryDir = Environment.getString("MAVEN_REPOSITORY_DIR");
+            if (mavenRepositoryDir != null) {
+                instance = new FilesystemRepositoryImpl(new File(mavenRepositoryDir));
+            } else if (password != null && username != null) {
+                instance = new ArtifactoryRepositoryImpl(username, password);
             } else {
-                throw new IllegalStateException("ARTIFACTORY_USERNAME and ARTIFACTORY_PASSWORD need to be set");
+                throw new IllegalStateException("ARTIFACTORY_USERNAME and ARTIFACTORY_PASSWORD, or MAVEN_REPOSITORY_DIR need to be set");
             }
         }
         return instance;
@@ -1,17 +1,21 @@
 package io.jenkins.update_center;
 
 import hudson.util.VersionNumber;
-import org.apache.commons.io.IOUtils;
 import org.kohsuke.args4j.Option;
 
 import javax.annotation.CheckForNull;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
+import java.util.NavigableMap;
 import java.util.TreeMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -47,6 +51,21 @@ public class DirectoryTreeBuilder {
     public String indexTemplate = null;
 
 
+    private long indexPagesNanos;
+
+    /**
+     * If set, files in {@link #download} are not written, but their changes recorded.
+     */
+    @CheckForNull
+    private OutputPlan plan;
+
+    /**
+     * @param plan records the changes to {@link #download} instead of making them
+     */
+    void setPlan(@CheckForNull OutputPlan plan) {
+        this.plan = plan;
+    }
+
     public void build(MavenRepository repo) throws IOException {
         IndexTemplateProvider indexTemplateProvider = indexTemplate == null ? new IndexTemplateProvider() : new JenkinsIndexTemplateProvider(indexTemplate);
         try (LatestLinkBuilder latestLinks = prepareLatestLinkBuilder(indexTemplateProvider)) {
@@ -57,7 +76,7 @@ public class DirectoryTreeBuilder {
                     latestLinks.add(plugin.getArtifactId() + ".hpi", plugin.getLatest().getDownloadUrl().getPath());
                 }
 
-                final TreeMap<VersionNumber, HPI> artifacts = plugin.getArtifacts();
+                final NavigableMap<VersionNumber, HPI> artifacts = plugin.getArtifacts();
 
                 if (download != null) {
                     for (HPI v : artifacts.values()) {
@@ -117,6 +136,17 @@ public class DirectoryTreeBuilder {
     private void createLatestSymlink(Plugin hpi) throws IOException {
         File dir = new File(download, "plugins/" + hpi.getArtifactId());
         final File latest = new File(dir, "latest");
+        if (plan != null) {
+            final Path link = latest.toPath();
+            if (!Files.exists(link, LinkOption.NOFOLLOW_LINKS)) {
+                plan.record(latest, OutputPlan.Change.ADDED);
+            } else if (Files.isSymbolicLink(link) && Files.readSymbolicLink(link).toString().equals(hpi.getLatest().version)) {
+                plan.record(latest, OutputPlan.Change.UNCHANGED);
+            } else {
+                plan.record(latest, OutputPlan.Change.MODIFIED);
+            }
+            return;
+        }
         if (latest.exists() && !latest.delete()) {
             throw new IOException("Failed to delete " + latest);
         }
@@ -145,8 +175,12 @@ public class DirectoryTreeBuilder {
      * @throws IOException when a problem occurs during file operations
      */
     protected void stage(MavenArtifact a, File dst) throws IOException {
+        if (plan != null) {
+            plan.record(dst, getPlannedChange(a, dst));
+            return;
+        }
         File src = a.resolve();
-        if (dst.exists() && dst.lastModified() == src.lastModified() && dst.length() == src.length()) {
+        if (dst.exists() && Files.isSameFile(src.toPath(), dst.toPath())) {
             LOGGER.log(Level.FINEST, () -> "Destination file " + dst + " for artifact " + a + " already exists");
             return;   // already up to date
         }
@@ -157,28 +191,33 @@ public class DirectoryTreeBuilder {
             throw new IOException("Failed to create " + parentFile);
         }
 
-        ProcessBuilder pb = new ProcessBuilder();
         if (System.getProperty("os.name").toLowerCase(Locale.US).contains("windows")) {
             return;
         }
-        pb.command("ln", "-f", src.getAbsolutePath(), dst.getAbsolutePath());
-        Process p = pb.start();
-        try {
-            if (p.waitFor() != 0) {
-                throw new IOException("'ln -f " + src.getAbsolutePath() + " " + dst.getAbsolutePath() +
-                        "' failed with code " + p.exitValue() + "\nError: " + IOUtils.toString(p.getErrorStream()) + "\nOutput: " + IOUtils.toString(p.getInputStream()));
-            } else {
-                LOGGER.log(Level.INFO, "Created new download file " + dst + " from " + src);
-            }
-        } catch (InterruptedException ex) {
-            LOGGER.log(Level.WARNING, "Interrupted creating " + dst + " from " + src, ex);
-        }
+        // Link to a temporary name first so that an existing destination is replaced atomically
+        final Path tmp = new File(parentFile, "." + dst.getName() + ".tmp").toPath();
+        Files.deleteIfExists(tmp);
+        Files.createLink(tmp, src.toPath());
+        Files.move(tmp, dst.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        LOGGER.log(Level.INFO, "Created new download file " + dst + " from " + src);
+    }
 
+    /**
+     * Released artifacts are not modified, so to avoid hashing the entire downloads directory, existing files with the
+     * expected size are considered unchanged.
+     */
+    private static OutputPlan.Change getPlannedChange(MavenArtifact a, File dst) throws IOException {
+        if (!dst.exists()) {
+            return OutputPlan.Change.ADDED;
+        }
+        final MavenRepository.ArtifactMetadata metadata = a.getMetadata();
+        return metadata != null && metadata.size == dst.length() ? OutputPlan.Change.UNCHANGED : OutputPlan.Change.MODIFIED;
     }
 
     private void buildIndex(File dir, String title, String subtitle,
                             Collection<? extends MavenArtifact> versions, String permalink,
                             IndexTemplateProvider service) throws IOException {
+        final long start = System.nanoTime();
         List<MavenArtifact> list = new ArrayList<>(versions);
         list.sort(Comparator.comparing(MavenArtifact::getVersion).reversed());
 
@@ -187,6 +226,15 @@ public class DirectoryTreeBuilder {
             for (MavenArtifact a : list) {
                 index.add(a);
             }
+        } finally {
+            indexPagesNanos += System.nanoTime() - start;
         }
     }
+
+    /**
+     * @return the time spent writing index pages, in nanoseconds
+     */
+    public long getIndexPagesNanos() {
+        return indexPagesNanos;
+    }
 }
@@ -0,0 +1,249 @@
+package io.jenkins.update_center;
+
+import io.jenkins.update_center.util.ZipFileUtil;
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.CheckForNull;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.jar.Manifest;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Maven repository backed by a local directory in Maven repository layout, like a mirror of the releases repository.
+ *
+ * <p>Checksums are read from {@code .sha1} and {@code .sha256} files next to the artifacts if present,
+ * otherwise they are computed. Manifests and other archive entries are read directly from the archives.</p>
+ */
+public class FilesystemRepositoryImpl extends BaseMavenRepository {
+    private static final Logger LOGGER = Logger.getLogger(FilesystemRepositoryImpl.class.getName());
+
+    private final File root;
+
+    private Map<ArtifactCoordinates, File> files;
+
+    private final Map<ArtifactCoordinates, ArtifactMetadata> metadata = new ConcurrentHashMap<>();
+
+    public FilesystemRepositoryImpl(File root) {
+        this.root = root;
+    }
+
+    private synchronized Map<ArtifactCoordinates, File> getFiles() throws IOException {
+        if (files == null) {
+            if (!root.isDirectory()) {
+                throw new IOException("Repository directory " + root + " does not exist");
+            }
+            LOGGER.log(Level.INFO, "Scanning " + root);
+            files = ForkJoinPool.commonPool().invoke(new ScanTask(root, ""));
+            LOGGER.log(Level.INFO, "Found " + files.size() + " files in " + root);
+        }
+        return files;
+    }
+
+    @Override
+    protected synchronized void refreshArtifacts() {
+        files = null;
+        metadata.clear();
+    }
+
+    @Override
+    public Collection<ArtifactCoordinates> listAllPlugins() throws IOException {
+        return getFiles().keySet().stream().filter(it -> it.packaging.equals("hpi") || it.packaging.equals("jpi")).collect(Collectors.toSet());
+    }
+
+    @Override
+    protected Set<ArtifactCoordinates> listAllJenkinsWars(String groupId) throws IOException {
+        return getFiles().keySet().stream().filter(it -> it.packaging.equals("war") && it.groupId.equals(groupId)).collect(Collectors.toSet());
+    }
+
+    @Override
+    public ArtifactMetadata getMetadata(MavenArtifact artifact) throws IOException {
+        final ArtifactMetadata cached = metadata.get(artifact.artifact);
+        if (cached != null) {
+            return cached;
+        }
+        final File file = getFiles().get(artifact.artifact);
+        if (file == null) {
+            LOGGER.log(Level.WARNING, "No artifact: " + artifact.toString());
+            return null;
+        }
+
+        ArtifactMetadata ret = new ArtifactMetadata();
+        byte[] sha1 = readChecksum(new File(file.getPath() + ".sha1"));
+        byte[] sha256 = readChecksum(new File(file.getPath() + ".sha256"));
+        if (sha1 == null || sha256 == null) {
+            try (InputStream is = new FileInputStream(file)) {
+                final MessageDigest sha1Digest = DigestUtils.getSha1Digest();
+                final MessageDigest sha256Digest = DigestUtils.getSha256Digest();
+                final byte[] buffer = new byte[64 * 1024];
+                int read;
+                while ((read = is.read(buffer)) != -1) {
+                    sha1Digest.update(buffer, 0, read);
+                    sha256Digest.update(buffer, 0, read);
+                }
+                sha1 = sha1 == null ? sha1Digest.digest() : sha1;
+                sha256 = sha256 == null ? sha256Digest.digest() : sha256;
+            }
+        }
+        ret.sha1 = Base64.encodeBase64String(sha1);
+        ret.sha256 = Base64.encodeBase64String(sha256);
+        ret.timestamp = file.lastModified();
+        ret.size = file.length();
+        metadata.put(artifact.artifact, ret);
+        return ret;
+    }
+
+    /**
+     * Reads a checksum file as written by Maven (hex encoded checksum, optionally followed by the file name).
+     *
+     * @param file the checksum file
+     * @return the checksum, or {@code null} if the file does not exist or is not a valid checksum file
+     */
+    @CheckForNull
+    private static byte[] readChecksum(File file) {
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            final String content = FileUtils.readFileToString(file, StandardCharsets.US_ASCII).trim();
+            return Hex.decodeHex(StringUtils.substringBefore(content, " "));
+        } catch (IOException | DecoderException e) {
+            LOGGER.log(Level.INFO, "Ignoring invalid checksum file " + file, e);
+            return null;
+        }
+    }
+
+    @Override
+    public Manifest getManifest(MavenArtifact artifact) throws IOException {
+        final byte[] manifest = ZipFileUtil.readManifest(resolve(artifact.artifact));
+        if (manifest == null) {
+            throw new IOException("No manifest in " + artifact);
+        }
+        return new Manifest(new ByteArrayInputStream(manifest));
+    }
+
+    @Override
+    public InputStream getZipFileEntry(MavenArtifact artifact, String path) throws IOException {
+        final ArtifactCoordinates a = artifact.artifact;
+        byte[] content = null;
+        final File file = new File(root, getUri(a));
+        if (file.isFile()) {
+            content = ZipFileUtil.readEntry(file, path);
+        } else if ("jar".equals(a.packaging)) {
+            // Plugin jars are not necessarily deployed separately, but are always contained in the HPI
+            for (String packaging : new String[] { "hpi", "jpi" }) {
+                final File plugin = new File(root, getUri(new ArtifactCoordinates(a.groupId, a.artifactId, a.version, packaging)));
+                if (plugin.isFile()) {
+                    content = ZipFileUtil.readNestedEntry(plugin, "WEB-INF/lib/" + a.artifactId + ".jar", path);
+                    break;
+                }
+            }
+        }
+        if (content == null) {
+            throw new FileNotFoundException("No entry " + path + " in " + a);
+        }
+        return new ByteArrayInputStream(content);
+    }
+
+    @Override
+    public File resolve(ArtifactCoordinates artifact) throws IOException {
+        final File file = new File(root, getUri(artifact));
+        if (!file.isFile()) {
+            throw new FileNotFoundException("No file " + file + " for " + artifact);
+        }
+        return file;
+    }
+
+    private static String getUri(ArtifactCoordinates a) {
+        return a.groupId.replace(".", "/") + "/" + a.artifactId + "/" + a.version + "/" + a.artifactId + "-" + a.version + "." + a.packaging;
+    }
+
+    /**
+     * Lists plugin and war files in a directory and its subdirectories, scanning subdirectories concurrently.
+     */
+    private static class ScanTask extends RecursiveTask<Map<ArtifactCoordinates, File>> {
+        private static final long serialVersionUID = 1L;
+
+        private final File directory;
+        private final String path;
+
+        private ScanTask(File directory, String path) {
+            this.directory = directory;
+            this.path = path;
+        }
+
+        @Override
+        protected Map<ArtifactCoordinates, File> compute() {
+            final Map<ArtifactCoordinates, File> ret = new ConcurrentHashMap<>();
+            final File[] children = directory.listFiles();
+            if (children == null) {
+                LOGGER.log(Level.WARNING, "Failed to list " + directory);
+                return ret;
+            }
+            List<ScanTask> subtasks = new ArrayList<>();
+            for (File child : children) {
+                final String name = child.getName();
+                if (child.isDirectory()) {
+                    if (!name.startsWith(".")) {
+                        subtasks.add(new ScanTask(child, path.isEmpty() ? name : path + "/" + name));
+                    }
+                } else if (name.endsWith(".hpi") || name.endsWith(".jpi") || name.endsWith(".war")) {
+                    final ArtifactCoordinates coordinates = toGav(path, name);
+                    if (coordinates != null) {
+                        ret.put(coordinates, child);
+                    }
+                }
+            }
+            for (ScanTask task : invokeAll(subtasks)) {
+                ret.putAll(task.join());
+            }
+            return ret;
+        }
+    }
+
+    @CheckForNull
+    private static ArtifactCoordinates toGav(String path, String fileName) {
+        final int gaToV = path.lastIndexOf('/');
+        if (gaToV <= 0) {
+            LOGGER.log(Level.FINE, "Unexpected path/name: " + path + " / " + fileName);
+            return null;
+        }
+        final String version = path.substring(gaToV + 1);
+        final String ga = path.substring(0, gaToV);
+        final int gToA = ga.lastIndexOf('/');
+        if (gToA <= 0) {
+            LOGGER.log(Level.FINE, "Unexpected path/name: " + path + " / " + fileName);
+            return null;
+        }
+        final String artifactId = ga.substring(gToA + 1);
+        final String groupId = ga.substring(0, gToA).replace('/', '.');
+        final String extension = fileName.substring(fileName.lastIndexOf('.') + 1);
+        if (!fileName.equals(artifactId + "-" + version + "." + extension)) {
+            // classifier or unrelated file
+            LOGGER.log(Level.FINE, "Unexpected path/name: " + path + " / " + fileName);
+            return null;
+        }
+        return new ArtifactCoordinates(groupId, artifactId, version, extension);
+    }
+}
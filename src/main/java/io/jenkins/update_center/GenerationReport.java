@@ -0,0 +1,255 @@
+package io.jenkins.update_center;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import io.jenkins.update_center.util.ContentCache;
+import io.jenkins.update_center.util.FetchStatistics;
+import io.jenkins.update_center.util.Pipeline;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Timing and cache statistics of the generation of an update site.
+ *
+ * <p>Remote requests and cache accesses are counted process-wide, so when update sites are generated concurrently,
+ * the numbers reported for each include those of the others generated at the same time.</p>
+ */
+public class GenerationReport {
+    private static final Logger LOGGER = Logger.getLogger(GenerationReport.class.getName());
+
+    private static final int SLOWEST_PLUGINS = 10;
+
+    private final long start = System.nanoTime();
+
+    private final Map<String, Long> phaseNanos = new LinkedHashMap<>();
+    private final Map<String, Long> pluginEntryNanos = new LinkedHashMap<>();
+    private final Map<String, Pipeline.StageStatistics> pipelineStages = new LinkedHashMap<>();
+    private int cachedPluginEntries;
+    private int signedDocuments;
+    private long signingNanos;
+    private final Map<String, Long> documentSigningNanos = new TreeMap<>();
+    private long indexPagesNanos;
+
+    private final Map<String, FetchStatistics.Counter> initialFetches = FetchStatistics.snapshot();
+    private final long initialXmlCacheHits = XmlCache.getHitCount();
+    private final long initialXmlCacheMisses = XmlCache.getMissCount();
+    private final ContentCache contentCache;
+    private final long initialContentCacheHits;
+    private final long initialContentCacheMisses;
+
+    /**
+     * @param contentCache the content cache of the repository, if it has one
+     */
+    public GenerationReport(@CheckForNull ContentCache contentCache) {
+        this.contentCache = contentCache;
+        this.initialContentCacheHits = contentCache == null ? 0 : contentCache.getHitCount();
+        this.initialContentCacheMisses = contentCache == null ? 0 : contentCache.getMissCount();
+    }
+
+    @FunctionalInterface
+    public interface Phase {
+        void run() throws Exception;
+    }
+
+    /**
+     * Runs a phase and records its duration. Phases with the same name are added up.
+     *
+     * @param name the name of the phase
+     * @param phase the work done in the phase
+     * @throws Exception when the phase fails
+     */
+    public void time(@Nonnull String name, @Nonnull Phase phase) throws Exception {
+        time(name, () -> {
+            phase.run();
+            return null;
+        });
+    }
+
+    /**
+     * Like {@link #time(String, Phase)}, for phases producing a result.
+     *
+     * @param name the name of the phase
+     * @param phase the work done in the phase
+     * @param <T> the type of the result
+     * @return the result of the phase
+     * @throws Exception when the phase fails
+     */
+    public <T> T time(@Nonnull String name, @Nonnull Callable<T> phase) throws Exception {
+        final long start = System.nanoTime();
+        try {
+            return phase.call();
+        } finally {
+            final long nanos = System.nanoTime() - start;
+            synchronized (this) {
+                phaseNanos.merge(name, nanos, Long::sum);
+            }
+        }
+    }
+
+    /**
+     * @param nanos the time it took to load the data of each plugin for the update center, by plugin ID
+     */
+    public synchronized void recordPluginEntries(@Nonnull Map<String, Long> nanos) {
+        pluginEntryNanos.putAll(nanos);
+    }
+
+    /**
+     * @param stages the statistics of the stages loading the data of plugins for the update center, by name
+     */
+    public synchronized void recordPipeline(@Nonnull Map<String, Pipeline.StageStatistics> stages) {
+        pipelineStages.putAll(stages);
+    }
+
+    /**
+     * @param count the number of plugin entries whose JSON is copied from identical entries of other update sites
+     */
+    public synchronized void recordCachedPluginEntries(int count) {
+        cachedPluginEntries += count;
+    }
+
+    /**
+     * @param documents the number of signed documents
+     * @param nanos the total time spent signing them
+     * @param documentNanos the time spent signing each named document, by name
+     */
+    public synchronized void recordSigning(int documents, long nanos, @Nonnull Map<String, Long> documentNanos) {
+        signedDocuments += documents;
+        signingNanos += nanos;
+        documentNanos.forEach((document, documentNano) -> documentSigningNanos.merge(document, documentNano, Long::sum));
+    }
+
+    public synchronized void recordIndexPages(long nanos) {
+        indexPagesNanos += nanos;
+    }
+
+    /**
+     * @return the report as a JSON compatible map
+     */
+    public synchronized Map<String, Object> toMap() {
+        Map<String, Object> ret = new LinkedHashMap<>();
+        ret.put("totalMillis", millis(System.nanoTime() - start));
+
+        Map<String, Object> phases = new LinkedHashMap<>();
+        phaseNanos.forEach((name, nanos) -> phases.put(name, millis(nanos)));
+        ret.put("phaseMillis", phases);
+
+        Map<String, Object> signing = new LinkedHashMap<>();
+        signing.put("documents", signedDocuments);
+        signing.put("millis", millis(signingNanos));
+        Map<String, Object> documents = new LinkedHashMap<>();
+        documentSigningNanos.forEach((document, nanos) -> documents.put(document, millis(nanos)));
+        signing.put("documentMillis", documents);
+        ret.put("signing", signing);
+        ret.put("indexPagesMillis", millis(indexPagesNanos));
+
+        Map<String, Object> fetches = new LinkedHashMap<>();
+        FetchStatistics.snapshot().forEach((kind, counter) -> {
+            final FetchStatistics.Counter since = counter.since(initialFetches.get(kind));
+            if (since.getCount() > 0) {
+                Map<String, Object> fetch = new LinkedHashMap<>();
+                fetch.put("count", since.getCount());
+                fetch.put("millis", since.getMillis());
+                fetch.put("averageMillis", since.getMillis() / since.getCount());
+                fetches.put(kind, fetch);
+            }
+        });
+        ret.put("remoteFetches", fetches);
+
+        List<Map<String, Object>> slowest = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : getSlowestPlugins()) {
+            Map<String, Object> plugin = new LinkedHashMap<>();
+            plugin.put("name", entry.getKey());
+            plugin.put("millis", millis(entry.getValue()));
+            slowest.add(plugin);
+        }
+        ret.put("slowestPlugins", slowest);
+
+        Map<String, Object> pipeline = new LinkedHashMap<>();
+        pipelineStages.forEach((name, stage) -> {
+            Map<String, Object> statistics = new LinkedHashMap<>();
+            statistics.put("threads", stage.getThreads());
+            statistics.put("items", stage.getItems());
+            statistics.put("busyMillis", stage.getBusyMillis());
+            statistics.put("starvedMillis", stage.getStarvedMillis());
+            statistics.put("blockedMillis", stage.getBlockedMillis());
+            pipeline.put(name, statistics);
+        });
+        ret.put("pipelineStages", pipeline);
+        ret.put("cachedPluginEntries", cachedPluginEntries);
+
+        if (contentCache != null) {
+            Map<String, Object> cache = cacheStatistics(contentCache.getHitCount() - initialContentCacheHits, contentCache.getMissCount() - initialContentCacheMisses);
+            cache.put("entries", contentCache.size());
+            cache.put("bytes", contentCache.getWeight());
+            cache.put("evictions", contentCache.getEvictionCount());
+            ret.put("contentCache", cache);
+        }
+        ret.put("xmlCache", cacheStatistics(XmlCache.getHitCount() - initialXmlCacheHits, XmlCache.getMissCount() - initialXmlCacheMisses));
+        return ret;
+    }
+
+    private List<Map.Entry<String, Long>> getSlowestPlugins() {
+        return pluginEntryNanos.entrySet().stream().sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(SLOWEST_PLUGINS).collect(Collectors.toList());
+    }
+
+    private static Map<String, Object> cacheStatistics(long hits, long misses) {
+        Map<String, Object> ret = new LinkedHashMap<>();
+        ret.put("hits", hits);
+        ret.put("misses", misses);
+        ret.put("hitRate", hits + misses == 0 ? 0 : (double) hits / (hits + misses));
+        return ret;
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /**
+     * @param file the file to write the report to, as JSON
+     * @throws IOException when writing fails
+     */
+    public void write(@Nonnull File file) throws IOException {
+        Files.write(file.toPath(), JSON.toJSONString(toMap(), SerializerFeature.PrettyFormat).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Logs a summary of the report.
+     *
+     * @param description identifies the update site
+     */
+    @SuppressWarnings("unchecked")
+    public void log(@Nonnull String description) {
+        final Map<String, Object> report = toMap();
+        StringBuilder sb = new StringBuilder("Generated ").append(description).append(" in ").append(report.get("totalMillis")).append(" ms");
+        sb.append("\n  Phases (ms): ").append(report.get("phaseMillis"));
+        sb.append("\n  Signing: ").append(report.get("signing"));
+        sb.append("\n  Pipeline stages: ").append(report.get("pipelineStages"));
+        sb.append("\n  Cached plugin entries: ").append(report.get("cachedPluginEntries"));
+        sb.append("\n  Remote fetches: ").append(report.get("remoteFetches"));
+        if (report.containsKey("contentCache")) {
+            sb.append("\n  Content cache: ").append(report.get("contentCache"));
+        }
+        sb.append("\n  XML cache: ").append(report.get("xmlCache"));
+        final List<Map<String, Object>> slowest = (List<Map<String, Object>>) report.get("slowestPlugins");
+        if (!slowest.isEmpty()) {
+            sb.append("\n  Slowest plugins (ms): ").append(slowest.stream().map(p -> p.get("name") + "=" + p.get("millis")).collect(Collectors.joining(", ")));
+        }
+        LOGGER.log(Level.INFO, sb.toString());
+    }
+}
@@ -1,6 +1,7 @@
 package io.jenkins.update_center;
 
 import io.jenkins.update_center.util.Environment;
+import io.jenkins.update_center.util.FetchStatistics;
 import io.jenkins.update_center.util.HttpHelper;
 import net.sf.json.JSONObject;
 import okhttp3.Credentials;
@@ -24,8 +25,8 @@ import java.util.logging.Logger;
 public class GitHubSource {
     private static final Logger LOGGER = Logger.getLogger(GitHubSource.class.getName());
 
-    private static String GITHUB_API_USERNAME = Environment.getString("GITHUB_USERNAME");
-    private static String GITHUB_API_PASSWORD = Environment.getString("GITHUB_PASSWORD");
+    private final String username = Environment.getString("GITHUB_USERNAME");
+    private final String password = Environment.getString("GITHUB_PASSWORD");
 
     private Set<String> repoNames;
     private Map<String, List<String>> topicNames;
@@ -34,7 +35,7 @@ public class GitHubSource {
 
     private void init() {
         try {
-            if (GITHUB_API_USERNAME != null && GITHUB_API_PASSWORD != null) {
+            if (username != null && password != null) {
                 this.initializeOrganizationData("jenkinsci");
             } else {
                 throw new IllegalStateException("GITHUB_USERNAME and GITHUB_PASSWORD must be set");
@@ -46,7 +47,7 @@ public class GitHubSource {
     }
 
     protected String getGraphqlUrl() {
-        return "https://api.github.com/graphql";
+        return Environment.getString("GITHUB_GRAPHQL_URL", "https://api.github.com/graphql");
     }
 
     protected void initializeOrganizationData(String organization) throws IOException {
@@ -59,9 +60,9 @@ public class GitHubSource {
 
         LOGGER.log(Level.INFO, "Retrieving GitHub repo data...");
         OkHttpClient.Builder builder = new OkHttpClient.Builder();
-        if (GITHUB_API_USERNAME != null && GITHUB_API_PASSWORD != null) {
+        if (username != null && password != null) {
             builder.authenticator((route, response) -> {
-                String credential = Credentials.basic(GITHUB_API_USERNAME, GITHUB_API_PASSWORD);
+                String credential = Credentials.basic(username, password);
                 return response.request().newBuilder().header("Authorization", credential).build();
             });
         }
@@ -111,7 +112,7 @@ public class GitHubSource {
                     .post(RequestBody.create(jsonObject.toString(), MediaType.parse("application/json; charset=utf-8")))
                     .build();
 
-            String bodyString = HttpHelper.getResponseBody(client, request);
+            String bodyString = FetchStatistics.time("github", () -> HttpHelper.getResponseBody(client, request));
 
             JSONObject jsonResponse = JSONObject.fromObject(bodyString);
             if (jsonResponse.has("errors")) {
@@ -170,6 +171,12 @@ public class GitHubSource {
         return this.defaultBranches.get(org + "/" + repo);
     }
 
+    void fingerprint(InputFingerprint fingerprint) {
+        fingerprint.add("github.repositories", repoNames);
+        fingerprint.add("github.topics", topicNames);
+        fingerprint.add("github.defaultBranches", defaultBranches);
+    }
+
     private static GitHubSource instance;
 
     public static synchronized GitHubSource getInstance() {
@@ -181,6 +188,13 @@ public class GitHubSource {
         return instance;
     }
 
+    /**
+     * Discards the loaded data, so that it is loaded again on the next call to {@link #getInstance()}.
+     */
+    static synchronized void reset() {
+        instance = null;
+    }
+
 
     public boolean isRepoExisting(String url) {
         return repoNames.contains(url);
@@ -27,6 +27,7 @@ import com.alibaba.fastjson.annotation.JSONField;
 import com.google.common.annotations.VisibleForTesting;
 import hudson.util.VersionNumber;
 import io.jenkins.update_center.util.JavaSpecificationVersion;
+import io.jenkins.update_center.util.VersionNumbers;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
 import org.dom4j.Document;
@@ -77,6 +78,9 @@ public class HPI extends MavenArtifact {
         this.plugin = plugin;
     }
 
+    /**
+     * @return the plugin as listed by the repository, with all releases, rather than any filtered view of it
+     */
     public Plugin getPlugin() {
         return plugin;
     }
@@ -95,7 +99,7 @@ public class HPI extends MavenArtifact {
         v = getManifestAttributes().getValue("Hudson-Version");
         if (fixNull(v) != null) {
             try {
-                VersionNumber n = new VersionNumber(v);
+                VersionNumber n = VersionNumbers.parse(v);
                 if (n.compareTo(JenkinsWar.HUDSON_CUT_OFF)<=0)
                     return v;   // Hudson <= 1.395 is treated as Jenkins
                 // TODO: Jenkins-Version started appearing from Jenkins 1.401 POM.
@@ -174,7 +178,7 @@ public class HPI extends MavenArtifact {
 
     private String description;
 
-    public String getDescription() throws IOException {
+    public synchronized String getDescription() throws IOException {
         if (description == null) {
             String description = plainText2html(readSingleValueFromXmlFile(resolvePOM(), "/project/description"));
 
@@ -241,7 +245,7 @@ public class HPI extends MavenArtifact {
      * @return The plugin name defined in the POM &lt;name&gt; modified by simplification rules (no 'Jenkins', no 'Plugin'); then artifact ID.
      * @throws IOException if an exception occurs while accessing metadata
      */
-    public String getName() throws IOException {
+    public synchronized String getName() throws IOException {
         if (name == null) {
             String title = readSingleValueFromXmlFile(resolvePOM(), "/project/name");
             if (title == null || "".equals(title)) {
@@ -270,7 +274,7 @@ public class HPI extends MavenArtifact {
         try {
             XmlCache.CachedValue cached = XmlCache.readCache(file, xpath);
             if (cached == null) {
-                Document doc = xmlReader.read(file);
+                Document doc = xmlReader.get().read(file);
                 Node node = selectSingleNode(doc, xpath);
                 String ret = node != null ? ((Element) node).getTextTrim() : null;
                 XmlCache.writeCache(file, xpath, ret);
@@ -290,7 +294,7 @@ public class HPI extends MavenArtifact {
         return result;
     }
 
-    private Document getPom() throws IOException {
+    private synchronized Document getPom() throws IOException {
         if (pom == null) {
             pom = readPOM();
         }
@@ -319,7 +323,7 @@ public class HPI extends MavenArtifact {
 
     private Document readPOM() throws IOException {
         try {
-            return xmlReader.read(resolvePOM());
+            return xmlReader.get().read(resolvePOM());
         } catch (DocumentException e) {
             LOGGER.log(Level.INFO, "Failed to parse POM for " + artifact.getGav(), e);
             return null;
@@ -332,7 +336,7 @@ public class HPI extends MavenArtifact {
      * @return The URL as specified in the POM, or the overrides file.
      * @throws IOException if an error occurs while accessing plugin metadata
      */
-    public String getPluginUrl() throws IOException {
+    public synchronized String getPluginUrl() throws IOException {
         if (pluginUrl == null) {
             // Check whether the plugin documentation URL should be overridden
             String url = URL_OVERRIDES.getProperty(artifact.artifactId);
@@ -528,7 +532,7 @@ public class HPI extends MavenArtifact {
      * @return a string representing a user-accessible SCM URL, like https://github.com/org/repo, or {code null} if the repo wasn't found or is considered invalid.
      * @throws IOException if an error occurs while accessing plugin metadata or GitHub
      */
-    public String getScmUrl() throws IOException {
+    public synchronized String getScmUrl() throws IOException {
         if (!scmUrlCached) {
             scmUrlCached = true;
             if (resolvePOM().exists()) {
@@ -587,7 +591,7 @@ public class HPI extends MavenArtifact {
 
     private List<String> labels;
 
-    public List<String> getLabels() throws IOException { // TODO this would be better in a different class, doesn't fit HPI type
+    public synchronized List<String> getLabels() throws IOException { // TODO this would be better in a different class, doesn't fit HPI type
         if (labels == null) {
             String scm = getScmUrl();
 
@@ -623,7 +627,7 @@ public class HPI extends MavenArtifact {
 
     private String defaultBranch;
 
-    public String getDefaultBranch() throws IOException { // TODO this would be better in a different class, doesn't fit HPI type
+    public synchronized String getDefaultBranch() throws IOException { // TODO this would be better in a different class, doesn't fit HPI type
         if (defaultBranch == null) {
             String scm = getScmUrl();
 
@@ -666,7 +670,7 @@ public class HPI extends MavenArtifact {
         return labels.split("\\s+");
     }
 
-    private static final SAXReader xmlReader = createXmlReader();
+    private static final ThreadLocal<SAXReader> xmlReader = ThreadLocal.withInitial(HPI::createXmlReader);
 
     private static final Logger LOGGER = Logger.getLogger(HPI.class.getName());
 }
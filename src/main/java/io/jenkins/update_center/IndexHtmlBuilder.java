@@ -23,13 +23,13 @@
  */
 package io.jenkins.update_center;
 
+import io.jenkins.update_center.util.PrecompressedFiles;
 import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.io.output.NullWriter;
 import org.bouncycastle.util.encoders.Base64;
 
 import java.io.Closeable;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
@@ -76,7 +76,7 @@ public class IndexHtmlBuilder implements Closeable {
         if (!dir.mkdirs() && !dir.isDirectory()) {
             throw new IllegalStateException("Failed to create " + dir);
         }
-        return new PrintWriter(new OutputStreamWriter(new FileOutputStream(new File(dir, "index.html")), StandardCharsets.UTF_8));
+        return new PrintWriter(new OutputStreamWriter(PrecompressedFiles.newOutputStream(new File(dir, "index.html"), Main.precompress), StandardCharsets.UTF_8));
     }
 
     private String base64ToHex(String base64) {
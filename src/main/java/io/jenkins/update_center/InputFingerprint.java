@@ -0,0 +1,76 @@
+package io.jenkins.update_center;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+
+/**
+ * SHA-256 based fingerprint of the inputs of an update site, used to skip generating it if they are unchanged.
+ *
+ * Inputs are added as named values, which are serialized to JSON (with sorted map keys) for hashing.
+ */
+public class InputFingerprint {
+    private final MessageDigest digest = DigestUtils.getSha256Digest();
+
+    private String value;
+
+    /**
+     * @param name the name of the input
+     * @param input the input, serialized to JSON
+     * @return this
+     */
+    public InputFingerprint add(@Nonnull String name, @CheckForNull Object input) {
+        update(name);
+        update(JSON.toJSONString(input, SerializerFeature.MapSortField, SerializerFeature.DisableCircularReferenceDetect));
+        return this;
+    }
+
+    /**
+     * @param name the name of the input
+     * @param file the file whose content is the input
+     * @return this
+     * @throws IOException if the file cannot be read
+     */
+    public InputFingerprint addFile(@Nonnull String name, @Nonnull File file) throws IOException {
+        update(name);
+        if (file.isFile()) {
+            try (InputStream is = Files.newInputStream(file.toPath())) {
+                update(DigestUtils.sha256Hex(is));
+            }
+        } else {
+            update("");
+        }
+        return this;
+    }
+
+    private void update(String s) {
+        if (value != null) {
+            throw new IllegalStateException("Fingerprint already computed");
+        }
+        final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        // length prefix, so that the boundaries between values are unambiguous
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+
+    /**
+     * @return the hex encoded fingerprint of all inputs added so far; no inputs can be added afterwards
+     */
+    public String getValue() {
+        if (value == null) {
+            value = Hex.encodeHexString(digest.digest());
+        }
+        return value;
+    }
+}
@@ -4,6 +4,7 @@ import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.TypeReference;
 import com.alibaba.fastjson.annotation.JSONField;
 import io.jenkins.update_center.util.Environment;
+import io.jenkins.update_center.util.FetchStatistics;
 import org.apache.commons.io.IOUtils;
 
 import java.io.IOException;
@@ -17,7 +18,7 @@ import java.util.logging.Logger;
 public class IssueTrackerSource {
     private static final Logger LOGGER = Logger.getLogger(IssueTrackerSource.class.getName());
 
-    private static final String DATA_URL = Environment.getString("ISSUE_TRACKER_JSON_URL", "https://reports.jenkins.io/issues.index.json");
+    private final String dataUrl = Environment.getString("ISSUE_TRACKER_JSON_URL", "https://reports.jenkins.io/issues.index.json");
 
     private HashMap<String, List<IssueTracker>> pluginToIssueTrackers;
 
@@ -30,6 +31,10 @@ public class IssueTrackerSource {
         public String reportUrl;
     }
 
+    void fingerprint(InputFingerprint fingerprint) {
+        fingerprint.add("issueTrackers", pluginToIssueTrackers);
+    }
+
     private static IssueTrackerSource instance;
 
     public static synchronized IssueTrackerSource getInstance() {
@@ -41,9 +46,16 @@ public class IssueTrackerSource {
         return instance;
     }
 
+    /**
+     * Discards the loaded data, so that it is loaded again on the next call to {@link #getInstance()}.
+     */
+    static synchronized void reset() {
+        instance = null;
+    }
+
     private void init() {
         try {
-            final String jsonData = IOUtils.toString(new URL(DATA_URL), StandardCharsets.UTF_8);
+            final String jsonData = FetchStatistics.time("issue-trackers", () -> IOUtils.toString(new URL(dataUrl), StandardCharsets.UTF_8));
             pluginToIssueTrackers = JSON.parseObject(jsonData, new TypeReferenceForHashMapFromStringToListOfIssueTracker().getType());
         } catch (RuntimeException | IOException ex) {
             LOGGER.log(Level.WARNING, ex.getMessage());
@@ -45,7 +45,7 @@ public class JenkinsWar extends MavenArtifact {
 
     public String getFileName() {
         String fileName;
-        if (new VersionNumber(version).compareTo(HUDSON_CUT_OFF)<=0) {
+        if (getVersion().compareTo(HUDSON_CUT_OFF)<=0) {
             fileName = "hudson.war";
         } else {
             fileName = "jenkins.war";
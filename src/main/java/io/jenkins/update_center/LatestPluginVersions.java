@@ -29,7 +29,6 @@ import javax.annotation.Nonnull;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.Map;
-import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
@@ -41,8 +40,6 @@ import java.util.stream.Collectors;
  * <p>Despite the name, unrelated to {@code latest/} directories created by {@link LatestLinkBuilder}.</p>
  */
 public class LatestPluginVersions {
-    private static LatestPluginVersions instance;
-
     private final Map<String, VersionNumber> latestVersions;
 
     private LatestPluginVersions(@Nonnull MavenRepository repository) throws IOException {
@@ -53,18 +50,26 @@ public class LatestPluginVersions {
         this.latestVersions = latestVersions;
     }
 
-    public static void initialize(@Nonnull MavenRepository repository) throws IOException {
-        instance = new LatestPluginVersions(repository);
+    /**
+     * @param repository the repository listing the latest published plugin versions
+     * @return the latest plugin versions
+     * @throws IOException when an exception contacting the artifacts repository occurs
+     */
+    @Nonnull
+    public static LatestPluginVersions create(@Nonnull MavenRepository repository) throws IOException {
+        return new LatestPluginVersions(repository);
     }
 
-    public static void initializeEmpty() {
-        instance = new LatestPluginVersions(Collections.emptyMap());
+    /**
+     * @return an instance not reporting any latest versions
+     */
+    @Nonnull
+    public static LatestPluginVersions empty() {
+        return new LatestPluginVersions(Collections.emptyMap());
     }
 
-    @Nonnull
-    public static LatestPluginVersions getInstance() {
-        Objects.requireNonNull(instance, "instance");
-        return instance;
+    void fingerprint(InputFingerprint fingerprint) {
+        fingerprint.add("latestPluginVersions", latestVersions.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().toString())));
     }
 
     public VersionNumber getLatestVersion(String pluginId) {
@@ -33,14 +33,19 @@ import io.jenkins.update_center.json.RecentReleasesRoot;
 import io.jenkins.update_center.json.TieredUpdateSitesGenerator;
 import io.jenkins.update_center.json.PluginDocumentationUrlsRoot;
 import io.jenkins.update_center.wrappers.AlphaBetaOnlyRepository;
+import io.jenkins.update_center.wrappers.CachingMavenRepository;
 import io.jenkins.update_center.wrappers.StableWarMavenRepository;
 import io.jenkins.update_center.wrappers.VersionCappedMavenRepository;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.TeeOutputStream;
 import io.jenkins.update_center.filters.JavaVersionPluginFilter;
 import io.jenkins.update_center.json.PluginVersionsRoot;
 import io.jenkins.update_center.json.ReleaseHistoryRoot;
 import io.jenkins.update_center.json.UpdateCenterRoot;
 import io.jenkins.update_center.util.JavaSpecificationVersion;
+import io.jenkins.update_center.util.PrecompressedFiles;
+import io.jenkins.update_center.util.ThreadPools;
 import io.jenkins.update_center.wrappers.FilteringRepository;
 import io.jenkins.update_center.wrappers.TruncatedMavenRepository;
 import io.jenkins.update_center.wrappers.AllowedArtifactsListMavenRepository;
@@ -54,14 +59,30 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.security.CodeSource;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.ConsoleHandler;
 import java.util.logging.Handler;
 import java.util.logging.Level;
@@ -81,6 +102,41 @@ public class Main {
     @SuppressFBWarnings
     @CheckForNull public static Level level = Level.INFO;
 
+    @Option(name = "--parallel-update-sites", usage = "Generate up to this many update sites from the arguments file concurrently. Update sites writing to the same directories are still generated in the order specified. This argument cannot be re-set via arguments-file.")
+    @SuppressFBWarnings
+    public static int parallelUpdateSites = 1;
+
+    @Option(name = "--plan", usage = "Do not write the update sites, but compare the files that would be written with those in --www-dir, --download-links-directory, --latest-links-directory, --dynamic-tier-list-file, and --downloads-directory, and report the changes. Generation timestamps and signatures are ignored when comparing files, and existing files in the downloads directory with the expected size are considered unchanged. This argument cannot be re-set via arguments-file.")
+    @SuppressFBWarnings
+    public static boolean plan;
+
+    @Option(name = "--plan-file", depends = "--plan", usage = "Write the list of changes found by --plan to this file as JSON, instead of standard output. This argument cannot be re-set via arguments-file.")
+    @SuppressFBWarnings
+    @CheckForNull public static File planFile;
+
+    @Option(name = "--daemon", usage = "Keep running after generating the update sites, and generate them again when triggered, reusing the data loaded before. Requires at least one of --daemon-port, --daemon-trigger-file, or --daemon-interval. This argument cannot be re-set via arguments-file.")
+    @SuppressFBWarnings
+    public static boolean daemon;
+
+    @Option(name = "--daemon-port", depends = "--daemon", usage = "Listen on this port of the loopback interface for POST requests to /regenerate to generate the update sites again. GET /status describes the most recent generation. This argument cannot be re-set via arguments-file.")
+    @SuppressFBWarnings
+    @CheckForNull public static Integer daemonPort;
+
+    @Option(name = "--daemon-trigger-file", depends = "--daemon", usage = "Generate the update sites again when this file is created or modified. This argument cannot be re-set via arguments-file.")
+    @SuppressFBWarnings
+    @CheckForNull public static File daemonTriggerFile;
+
+    @Option(name = "--daemon-interval", depends = "--daemon", usage = "Generate the update sites again this many minutes after the previous generation started. This argument cannot be re-set via arguments-file.")
+    @SuppressFBWarnings
+    @CheckForNull public static Integer daemonInterval;
+
+    @Option(name = "--daemon-sources-max-age", depends = "--daemon", usage = "Reload data from GitHub, maintainers and issue trackers reports, and plugin popularities when generation starts, if it was loaded more than this many minutes ago. Changes to the resources directory require a restart. This argument cannot be re-set via arguments-file.")
+    @SuppressFBWarnings
+    public static int daemonSourcesMaxAge = 60;
+
+    @Option(name = "--precompress", usage = "Also write gzip-compressed copies (with the additional extension .gz) of the generated JSON files and index.html pages, for web servers to serve instead of compressing these files for every request. This argument cannot be re-set via arguments-file.")
+    public static boolean precompress;
+
 
     /* Configure repository source */
     @Option(name = "--limit-plugin-core-dependency", usage = "Cap the core dependency and only include plugins that are compatible with this core (or older)")
@@ -147,12 +203,46 @@ public class Main {
     @Option(name = "--connection-check-url", usage = "Specify an URL of the 'always up' server for performing connection check.")
     @CheckForNull public String connectionCheckUrl;
 
+    @Option(name = "--fingerprint-file", usage = "Record a fingerprint of the inputs of this update site in this file, and skip generating it if they are unchanged since it was last generated. Skipped update sites keep their previous files, including their generation timestamp. Update sites that depend on the current time (recent releases, release history) or write download directories are always generated. The fingerprint includes the checksum of the generator itself, so upgrading it regenerates all update sites.")
+    @CheckForNull public File fingerprintFile;
+
 
     /* These fields are other objects configurable with command-line options */
     private Signer signer = new Signer();
     private MetadataWriter metadataWriter = new MetadataWriter();
     private DirectoryTreeBuilder directoryTreeBuilder = new DirectoryTreeBuilder();
 
+    /**
+     * Repositories with the plugin selection options applied, shared by all update sites in an arguments file using the same options.
+     */
+    private final Map<List<Object>, MavenRepository> pluginRepositories;
+
+    /**
+     * The JSON of plugin entries, shared by all update sites in an arguments file offering the same releases.
+     */
+    private final PluginUpdateCenterEntryCache pluginEntryCache;
+
+    /**
+     * The arguments of this update site from the arguments file, for logging.
+     */
+    private final String arguments;
+
+    /**
+     * Records the changes to outputs instead of making them, see {@link #plan}.
+     */
+    @CheckForNull
+    private OutputPlan outputPlan;
+
+    public Main() {
+        this(new HashMap<>(), new PluginUpdateCenterEntryCache(), null);
+    }
+
+    private Main(Map<List<Object>, MavenRepository> pluginRepositories, PluginUpdateCenterEntryCache pluginEntryCache, String arguments) {
+        this.pluginRepositories = pluginRepositories;
+        this.pluginEntryCache = pluginEntryCache;
+        this.arguments = arguments;
+    }
+
 
     public static void main(String[] args) throws Exception {
         if (!System.getProperty("file.encoding").equals("UTF-8")) {
@@ -173,35 +263,15 @@ public class Main {
     }
 
     public int run(String[] args) throws Exception {
-        CmdLineParser p = new CmdLineParser(this);
-        new ClassParser().parse(signer, p);
-        new ClassParser().parse(metadataWriter, p);
-        new ClassParser().parse(directoryTreeBuilder, p);
+        CmdLineParser p = createParser();
         try {
             p.parseArgument(args);
 
-            if (argumentsFile == null) {
-                run();
+            if (daemon) {
+                runDaemon(args);
             } else {
-                List<String> invocations = IOUtils.readLines(Files.newBufferedReader(argumentsFile.toPath(), StandardCharsets.UTF_8));
-                int executions = 0;
-                for (String line : invocations) {
-                    if (!line.trim().startsWith("#") && !line.trim().isEmpty()) { // TODO more flexible comments support, e.g. end-of-line
-
-                        LOGGER.log(Level.INFO, "Running with args: " + line);
-                        // TODO combine args array and this list
-                        String[] invocationArgs = line.trim().split(" +");
-
-                        resetArguments(this, signer, metadataWriter, directoryTreeBuilder);
-
-                        p.parseArgument(invocationArgs);
-                        run();
-                        executions++;
-                    }
-                }
-                LOGGER.log(Level.INFO, "Finished " + executions + " executions found in parameters file " + argumentsFile);
+                runOnce();
             }
-
             return 0;
         } catch (CmdLineException e) {
             LOGGER.log(Level.SEVERE, e.getMessage());
@@ -210,26 +280,154 @@ public class Main {
         }
     }
 
-    private void resetArguments(Object... optionHolders) {
-        for (Object o : optionHolders) {
-            for (Field field : o.getClass().getFields()) {
-                if (field.getAnnotation(Option.class) != null && !Modifier.isStatic(field.getModifiers())) {
-                    if (Object.class.isAssignableFrom(field.getType())) {
-                        try {
-                            field.set(o, null);
-                        } catch (IllegalAccessException e) {
-                            LOGGER.log(Level.WARNING, "Failed to reset argument", e);
-                        }
-                    } else if (boolean.class.isAssignableFrom(field.getType())) {
-                        try {
-                            field.set(o, false);
-                        } catch (IllegalAccessException e) {
-                            LOGGER.log(Level.WARNING, "Failed to reset boolean option", e);
-                        }
+    private void runOnce() throws Exception {
+        outputPlan = plan ? new OutputPlan() : null;
+        if (argumentsFile == null) {
+            run();
+        } else {
+            List<String> invocations = IOUtils.readLines(Files.newBufferedReader(argumentsFile.toPath(), StandardCharsets.UTF_8));
+            List<Main> sites = new ArrayList<>();
+            for (String line : invocations) {
+                if (!line.trim().startsWith("#") && !line.trim().isEmpty()) { // TODO more flexible comments support, e.g. end-of-line
+                    // TODO combine args array and this list
+                    String[] invocationArgs = line.trim().split(" +");
+
+                    // Validate all lines before generating any update site
+                    Main site = new Main(pluginRepositories, pluginEntryCache, String.join(" ", invocationArgs));
+                    site.createParser().parseArgument(invocationArgs);
+                    site.outputPlan = outputPlan;
+                    sites.add(site);
+                }
+            }
+
+            // All update sites are generated from the same plugin and core release data, loaded once
+            if (parallelUpdateSites > 1) {
+                runConcurrently(sites, parallelUpdateSites);
+            } else {
+                for (Main site : sites) {
+                    LOGGER.log(Level.INFO, "Running with args: " + site.arguments);
+                    site.run();
+                }
+            }
+            LOGGER.log(Level.INFO, "Finished " + sites.size() + " executions found in parameters file " + argumentsFile);
+        }
+        if (outputPlan != null) {
+            outputPlan.write(planFile);
+        }
+    }
+
+    /**
+     * Generates the update sites whenever triggered.
+     * Each generation parses the arguments (and arguments file) again, but uses the same repository, refreshed to
+     * include new releases, so that data loaded for unchanged plugins is reused.
+     */
+    private void runDaemon(String[] args) throws Exception {
+        if (daemonPort == null && daemonTriggerFile == null && daemonInterval == null) {
+            throw new IllegalArgumentException("--daemon requires at least one of --daemon-port, --daemon-trigger-file, or --daemon-interval");
+        }
+        final Daemon daemon = new Daemon(daemonPort, daemonTriggerFile, daemonInterval);
+        daemon.start();
+        final AtomicLong sourcesLoaded = new AtomicLong(System.nanoTime());
+        daemon.run(() -> {
+            if (System.nanoTime() - sourcesLoaded.get() >= TimeUnit.MINUTES.toNanos(daemonSourcesMaxAge)) {
+                LOGGER.log(Level.INFO, "Reloading data from GitHub, maintainers and issue trackers reports, and plugin popularities");
+                GitHubSource.reset();
+                MaintainersSource.reset();
+                IssueTrackerSource.reset();
+                Popularities.reset();
+                sourcesLoaded.set(System.nanoTime());
+            }
+            DefaultMavenRepositoryBuilder.getInstance().refresh();
+            synchronized (pluginRepositories) {
+                pluginRepositories.clear();
+            }
+
+            // entries include data from other sources, and are only shared by the update sites generated together
+            final Main main = new Main(pluginRepositories, new PluginUpdateCenterEntryCache(), null);
+            main.createParser().parseArgument(args);
+            main.runOnce();
+        });
+    }
+
+    private CmdLineParser createParser() {
+        CmdLineParser p = new CmdLineParser(this);
+        new ClassParser().parse(signer, p);
+        new ClassParser().parse(metadataWriter, p);
+        new ClassParser().parse(directoryTreeBuilder, p);
+        return p;
+    }
+
+    /**
+     * Generates update sites concurrently.
+     * Update sites writing to the same directories are generated in the specified order, as later ones may expect to
+     * replace files written by earlier ones (e.g. 'latest' symlinks in the downloads directory).
+     */
+    private static void runConcurrently(List<Main> sites, int threads) throws Exception {
+        final ExecutorService executor = ThreadPools.newExecutor("update-site", threads);
+        try {
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < sites.size(); i++) {
+                final Main site = sites.get(i);
+                List<CompletableFuture<Void>> predecessors = new ArrayList<>();
+                for (int j = 0; j < i; j++) {
+                    if (sites.get(j).hasOverlappingOutput(site)) {
+                        predecessors.add(futures.get(j));
                     }
                 }
+                futures.add(CompletableFuture.allOf(predecessors.toArray(new CompletableFuture<?>[0])).thenRunAsync(() -> {
+                    LOGGER.log(Level.INFO, "Running with args: " + site.arguments);
+                    try {
+                        site.run();
+                    } catch (Exception e) {
+                        throw new CompletionException(e);
+                    }
+                }, executor));
+            }
+
+            Exception failure = null;
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    futures.get(i).join();
+                } catch (CompletionException e) {
+                    final Throwable cause = e.getCause();
+                    if (failure == null) {
+                        failure = cause instanceof Exception ? (Exception) cause : e;
+                    } else if (cause != failure) {
+                        failure.addSuppressed(cause);
+                    }
+                    LOGGER.log(Level.SEVERE, "Failed to generate update site with args: " + sites.get(i).arguments);
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @return the directories and files this update site writes to
+     */
+    private List<File> getOutputs() {
+        List<File> ret = new ArrayList<>();
+        for (File file : new File[] { www, tierListFile, directoryTreeBuilder.download, directoryTreeBuilder.wwwDownload, directoryTreeBuilder.latest }) {
+            if (file != null) {
+                ret.add(file.getAbsoluteFile().toPath().normalize().toFile());
             }
         }
+        return ret;
+    }
+
+    private boolean hasOverlappingOutput(Main other) {
+        for (File output : getOutputs()) {
+            for (File otherOutput : other.getOutputs()) {
+                if (output.toPath().startsWith(otherOutput.toPath()) || otherOutput.toPath().startsWith(output.toPath())) {
+                    return true;
+                }
+            }
+        }
+        return false;
     }
 
     public void run() throws Exception {
@@ -238,53 +436,295 @@ public class Main {
             PACKAGE_LOGGER.setLevel(level);
         }
 
-        MavenRepository repo = createRepository();
-        initializeLatestPluginVersions(skipLatestPluginRelease);
+        if (outputPlan != null) {
+            plan(outputPlan);
+            return;
+        }
+
+        final BaseMavenRepository baseRepository = DefaultMavenRepositoryBuilder.getInstance();
+        final GenerationReport report = new GenerationReport(baseRepository instanceof ArtifactoryRepositoryImpl ? ((ArtifactoryRepositoryImpl) baseRepository).getContentCache() : null);
+        generate(report);
+        report.recordSigning(signer.getSignedDocuments(), signer.getSigningNanos(), signer.getDocumentSigningNanos());
+        report.recordIndexPages(directoryTreeBuilder.getIndexPagesNanos());
+
+        final File output = www != null ? www : tierListFile;
+        report.log("update site" + (output == null ? "" : " " + output));
+        if (www != null) {
+            final File reportFile = getReportFile(www);
+            LOGGER.log(Level.INFO, "Writing generation report to " + reportFile);
+            report.write(reportFile);
+        }
+    }
+
+    /**
+     * Generates this update site into a temporary directory, except for the downloads directory, and records how the
+     * generated files differ from the existing ones.
+     */
+    private void plan(OutputPlan outputPlan) throws Exception {
+        final File outputs = www != null ? www : tierListFile;
+        final File stagingDirectory = Files.createTempDirectory("update-site-plan").toFile();
+        try {
+            final Map<File, File> staged = stageOutputs(stagingDirectory);
+            directoryTreeBuilder.setPlan(outputPlan);
+            generate(new GenerationReport(null));
+
+            for (Map.Entry<File, File> entry : staged.entrySet()) {
+                outputPlan.compare(entry.getValue(), entry.getKey());
+            }
+            LOGGER.log(Level.INFO, "Planned changes for update site" + (outputs == null ? "" : " " + outputs) + ", total so far: " + outputPlan.getSummary());
+        } finally {
+            FileUtils.deleteDirectory(stagingDirectory);
+        }
+    }
+
+    /**
+     * Redirects the outputs of this update site, except for the downloads directory, to the specified directory.
+     *
+     * @return the original locations of the outputs that are not inside other outputs, mapped to their new locations
+     */
+    private Map<File, File> stageOutputs(File stagingDirectory) {
+        final List<File> outputs = new ArrayList<>();
+        for (File file : new File[] { www, tierListFile, directoryTreeBuilder.wwwDownload, directoryTreeBuilder.latest }) {
+            if (file != null) {
+                outputs.add(file.getAbsoluteFile().toPath().normalize().toFile());
+            }
+        }
+        final Map<File, File> ret = new LinkedHashMap<>();
+        for (File output : outputs) {
+            if (outputs.stream().noneMatch(other -> !other.equals(output) && output.toPath().startsWith(other.toPath())) && !ret.containsKey(output)) {
+                ret.put(output, new File(stagingDirectory, Integer.toString(ret.size())));
+            }
+        }
+
+        www = stage(www, ret);
+        tierListFile = stage(tierListFile, ret);
+        directoryTreeBuilder.wwwDownload = stage(directoryTreeBuilder.wwwDownload, ret);
+        directoryTreeBuilder.latest = stage(directoryTreeBuilder.latest, ret);
+        return ret;
+    }
+
+    private static File stage(@CheckForNull File file, Map<File, File> staged) {
+        if (file == null) {
+            return null;
+        }
+        final File output = file.getAbsoluteFile().toPath().normalize().toFile();
+        for (Map.Entry<File, File> entry : staged.entrySet()) {
+            if (output.toPath().startsWith(entry.getKey().toPath())) {
+                return new File(entry.getValue(), entry.getKey().toPath().relativize(output.toPath()).toString());
+            }
+        }
+        throw new IllegalStateException("Not staged: " + file);
+    }
+
+    /**
+     * The report is written next to the output directory, so that it is not published along with the update site.
+     */
+    private static File getReportFile(File www) {
+        final File dir = www.getAbsoluteFile().toPath().normalize().toFile();
+        return new File(dir.getParentFile(), dir.getName() + GENERATION_REPORT_SUFFIX);
+    }
+
+    private void generate(GenerationReport report) throws Exception {
+        final MavenRepository repo = report.time("repository", () -> {
+            final MavenRepository repository = createRepository();
+            if (tierListFile != null || skipUpdateCenter) {
+                // Otherwise, files are retrieved while generating the update center, see UpdateCenterRoot
+                repository.prefetch(repository.listJenkinsPlugins());
+            }
+            return repository;
+        });
+
+        final LatestPluginVersions latestPluginVersions = report.time("latest-plugin-versions", () -> createLatestPluginVersions(skipLatestPluginRelease));
 
         if (tierListFile != null) {
-            new TieredUpdateSitesGenerator().withRepository(repo).write(tierListFile, prettyPrint);
+            report.time("tier-list", () -> {
+                new TieredUpdateSitesGenerator().withRepository(repo).write(tierListFile, prettyPrint);
+            });
             return;
         }
 
-        metadataWriter.writeMetadataFiles(repo, www);
+        String inputFingerprint = null;
+        if (fingerprintFile != null && outputPlan == null) {
+            if (generateRecentReleases || generateReleaseHistory || directoryTreeBuilder.download != null || directoryTreeBuilder.wwwDownload != null || directoryTreeBuilder.latest != null) {
+                LOGGER.log(Level.INFO, "Ignoring fingerprint file " + fingerprintFile + " for update site depending on the current time or writing download directories");
+            } else {
+                inputFingerprint = report.time("fingerprint", () -> computeInputFingerprint(repo, latestPluginVersions));
+                if (www != null && www.isDirectory() && fingerprintFile.isFile() && inputFingerprint.equals(FileUtils.readFileToString(fingerprintFile, StandardCharsets.UTF_8).trim())) {
+                    LOGGER.log(Level.INFO, "Inputs unchanged since update site in " + www + " was generated, skipping");
+                    return;
+                }
+                // Only a successful run records the fingerprint
+                Files.deleteIfExists(fingerprintFile.toPath());
+            }
+        }
+
+        report.time("metadata", () -> {
+            metadataWriter.writeMetadataFiles(repo, www);
+        });
 
         if (!skipUpdateCenter) {
-            final String signedUpdateCenterJson = new UpdateCenterRoot(repo, new File(Main.resourcesDir, WARNINGS_JSON_FILENAME)).encodeWithSignature(signer, prettyPrint);
-            writeToFile(updateCenterPostCallJson(signedUpdateCenterJson), new File(www, UPDATE_CENTER_JSON_FILENAME));
-            writeToFile(signedUpdateCenterJson, new File(www, UPDATE_CENTER_ACTUAL_JSON_FILENAME));
-            writeToFile(updateCenterPostMessageHtml(signedUpdateCenterJson), new File(www, UPDATE_CENTER_JSON_HTML_FILENAME));
+            report.time("update-center", () -> {
+                final UpdateCenterRoot updateCenterRoot = new UpdateCenterRoot(repo, new File(Main.resourcesDir, WARNINGS_JSON_FILENAME), latestPluginVersions, pluginEntryCache);
+                report.recordPluginEntries(updateCenterRoot.pluginEntryNanos());
+                report.recordCachedPluginEntries(updateCenterRoot.cachedPluginEntries());
+                report.recordPipeline(updateCenterRoot.pipelineStatistics());
+                writeUpdateCenterJson(updateCenterRoot, www);
+            });
         }
 
         if (generatePluginDocumentationUrls) {
-            new PluginDocumentationUrlsRoot(repo).write(new File(www, PLUGIN_DOCUMENTATION_URLS_JSON_FILENAME), prettyPrint);
+            report.time("plugin-documentation-urls", () -> {
+                new PluginDocumentationUrlsRoot(repo).write(new File(www, PLUGIN_DOCUMENTATION_URLS_JSON_FILENAME), prettyPrint);
+            });
         }
 
         if (generatePluginVersions) {
-            new PluginVersionsRoot("1", repo).writeWithSignature(new File(www, PLUGIN_VERSIONS_JSON_FILENAME), signer, prettyPrint);
+            report.time("plugin-versions", () -> {
+                new PluginVersionsRoot("1", repo).writeWithSignature(new File(www, PLUGIN_VERSIONS_JSON_FILENAME), signer, prettyPrint);
+            });
         }
 
         if (generateReleaseHistory) {
-            new ReleaseHistoryRoot(repo).write(new File(www, RELEASE_HISTORY_JSON_FILENAME), prettyPrint);
+            report.time("release-history", () -> {
+                new ReleaseHistoryRoot(repo).write(new File(www, RELEASE_HISTORY_JSON_FILENAME), prettyPrint);
+            });
         }
 
         if (generateRecentReleases) {
-            new RecentReleasesRoot(repo).write(new File(www, RECENT_RELEASES_JSON_FILENAME), prettyPrint);
+            report.time("recent-releases", () -> {
+                new RecentReleasesRoot(repo).write(new File(www, RECENT_RELEASES_JSON_FILENAME), prettyPrint);
+            });
         }
 
         if (generatePlatformPlugins) {
-            new PlatformPluginsRoot(new File(Main.resourcesDir, PLATFORM_PLUGINS_RESOURCE_FILENAME)).writeWithSignature(new File(www, PLATFORM_PLUGINS_JSON_FILENAME), signer, prettyPrint);
+            report.time("platform-plugins", () -> {
+                new PlatformPluginsRoot(new File(Main.resourcesDir, PLATFORM_PLUGINS_RESOURCE_FILENAME)).writeWithSignature(new File(www, PLATFORM_PLUGINS_JSON_FILENAME), signer, prettyPrint);
+            });
+        }
+
+        report.time("directory-tree", () -> {
+            directoryTreeBuilder.build(repo);
+        });
+
+        if (inputFingerprint != null) {
+            writeToFile(inputFingerprint, fingerprintFile);
+        }
+    }
+
+    /**
+     * Computes the fingerprint of everything determining the content of this update site: the generator, options,
+     * offered plugin and core releases, resource files, and data from external sources.
+     */
+    private String computeInputFingerprint(MavenRepository repo, LatestPluginVersions latestPluginVersions) throws Exception {
+        final InputFingerprint fingerprint = new InputFingerprint();
+        fingerprint.add("generator", getGeneratorFingerprint());
+
+        final Map<String, Object> options = new TreeMap<>();
+        for (Object configurable : new Object[] { this, signer, metadataWriter, directoryTreeBuilder }) {
+            for (Field field : configurable.getClass().getDeclaredFields()) {
+                final Option option = field.getAnnotation(Option.class);
+                if (option != null && !Modifier.isStatic(field.getModifiers()) && !field.getName().equals("fingerprintFile")) {
+                    field.setAccessible(true);
+                    options.put(option.name(), field.get(configurable));
+                }
+            }
         }
+        if (precompress) {
+            // affects the files written, but unlike most static options, not the content of the update site
+            options.put("--precompress", true);
+        }
+        for (Map.Entry<String, Object> option : options.entrySet()) {
+            final Object value = option.getValue();
+            for (Object v : value instanceof List ? (List<?>) value : Collections.singletonList(value)) {
+                if (v instanceof File) {
+                    // key, certificates, and allowed artifacts list
+                    fingerprint.add(option.getKey(), ((File) v).getPath());
+                    fingerprint.addFile(option.getKey(), (File) v);
+                } else {
+                    fingerprint.add(option.getKey(), v);
+                }
+            }
+        }
+
+        for (Plugin plugin : repo.listJenkinsPlugins()) {
+            final Map<String, MavenRepository.ArtifactMetadata> releases = new LinkedHashMap<>();
+            for (HPI hpi : plugin.getArtifacts().values()) {
+                releases.put(hpi.getGavId(), hpi.getMetadata());
+            }
+            fingerprint.add(plugin.getArtifactId(), releases);
+        }
+        for (JenkinsWar war : repo.getJenkinsWarsByVersionNumber().values()) {
+            fingerprint.add(war.getGavId(), war.getMetadata());
+        }
+        latestPluginVersions.fingerprint(fingerprint);
 
-        directoryTreeBuilder.build(repo);
+        if (resourcesDir.isDirectory()) {
+            final List<File> resources = new ArrayList<>(FileUtils.listFiles(resourcesDir, null, true));
+            Collections.sort(resources);
+            for (File resource : resources) {
+                fingerprint.addFile(resourcesDir.toPath().relativize(resource.toPath()).toString(), resource);
+            }
+        }
+
+        GitHubSource.getInstance().fingerprint(fingerprint);
+        MaintainersSource.getInstance().fingerprint(fingerprint);
+        IssueTrackerSource.getInstance().fingerprint(fingerprint);
+        Popularities.getInstance().fingerprint(fingerprint);
+
+        return fingerprint.getValue();
     }
 
-    private String updateCenterPostCallJson(String updateCenterJson) {
-        return "updateCenter.post(" + EOL + updateCenterJson + EOL + ");";
+    /**
+     * Computes the checksum of the code of the generator (its jar, or its classes directory when run from a build), so
+     * that a new build of the generator changing the output is not skipped because the inputs are unchanged.
+     */
+    private static synchronized String getGeneratorFingerprint() throws IOException, URISyntaxException {
+        if (generatorFingerprint == null) {
+            final InputFingerprint fingerprint = new InputFingerprint();
+            final CodeSource codeSource = Main.class.getProtectionDomain().getCodeSource();
+            final File location = codeSource == null ? null : new File(codeSource.getLocation().toURI());
+            if (location == null) {
+                fingerprint.add("version", Main.class.getPackage().getImplementationVersion());
+            } else if (location.isDirectory()) {
+                final List<File> classes = new ArrayList<>(FileUtils.listFiles(location, null, true));
+                Collections.sort(classes);
+                for (File file : classes) {
+                    fingerprint.addFile(location.toPath().relativize(file.toPath()).toString(), file);
+                }
+            } else {
+                fingerprint.addFile(location.getName(), location);
+            }
+            generatorFingerprint = fingerprint.getValue();
+        }
+        return generatorFingerprint;
     }
 
-    private String updateCenterPostMessageHtml(String updateCenterJson) {
-        // needs the DOCTYPE to make JSON.stringify work on IE8
-        return "\uFEFF<!DOCTYPE html><html><head><meta http-equiv='Content-Type' content='text/html;charset=UTF-8' /></head><body><script>window.onload = function () { window.parent.postMessage(JSON.stringify(" + EOL + updateCenterJson+ EOL + "),'*'); };</script></body></html>";
+    /**
+     * The code of the generator does not change while it is running, so its checksum is computed once per process.
+     */
+    private static String generatorFingerprint;
+
+    /**
+     * Writes the signed update center JSON to {@code update-center.actual.json}, and wrapped in a JSONP call to
+     * {@code update-center.json} and in an HTML page posting it to its parent to {@code update-center.json.html}.
+     * The JSON is generated once, and written to all three files at the same time.
+     */
+    private void writeUpdateCenterJson(UpdateCenterRoot updateCenterRoot, File www) throws IOException, GeneralSecurityException {
+        if (!www.isDirectory() && !www.mkdirs()) {
+            throw new IOException("Failed to create directory " + www);
+        }
+        try (OutputStream postCall = PrecompressedFiles.newOutputStream(new File(www, UPDATE_CENTER_JSON_FILENAME), precompress);
+             OutputStream actual = PrecompressedFiles.newOutputStream(new File(www, UPDATE_CENTER_ACTUAL_JSON_FILENAME), precompress);
+             OutputStream postMessage = PrecompressedFiles.newOutputStream(new File(www, UPDATE_CENTER_JSON_HTML_FILENAME), precompress)) {
+            postCall.write(("updateCenter.post(" + EOL).getBytes(StandardCharsets.UTF_8));
+            // needs the DOCTYPE to make JSON.stringify work on IE8
+            postMessage.write(("\uFEFF<!DOCTYPE html><html><head><meta http-equiv='Content-Type' content='text/html;charset=UTF-8' /></head><body><script>window.onload = function () { window.parent.postMessage(JSON.stringify(" + EOL).getBytes(StandardCharsets.UTF_8));
+
+            updateCenterRoot.writeWithSignature(new TeeOutputStream(new TeeOutputStream(postCall, actual), postMessage), signer, prettyPrint);
+
+            postCall.write((EOL + ");").getBytes(StandardCharsets.UTF_8));
+            postMessage.write((EOL + "),'*'); };</script></body></html>").getBytes(StandardCharsets.UTF_8));
+        }
     }
 
     private static void writeToFile(String string, final File file) throws IOException {
@@ -297,50 +737,51 @@ public class Main {
         rhpw.close();
     }
 
-    private void initializeLatestPluginVersions(boolean skip) throws IOException {
+    private LatestPluginVersions createLatestPluginVersions(boolean skip) throws IOException {
         if (skip) {
-            LatestPluginVersions.initializeEmpty();
-            return;
+            return LatestPluginVersions.empty();
         }
-        MavenRepository repo = DefaultMavenRepositoryBuilder.getInstance();
-        if (allowedArtifactsListFile != null) {
-            final Properties properties = new Properties();
-            try (FileInputStream fis = new FileInputStream(allowedArtifactsListFile)) {
-                properties.load(fis);
+        return LatestPluginVersions.create(getPluginRepository());
+    }
+
+    /**
+     * Returns the repository with the options selecting plugins applied, but without core version caps.
+     * It is created once for each distinct combination of these options.
+     */
+    private MavenRepository getPluginRepository() throws IOException {
+        final List<Object> key = Arrays.asList(allowedArtifactsListFile, maxPlugins, onlyExperimental, includeExperimental);
+        synchronized (pluginRepositories) {
+            MavenRepository repo = pluginRepositories.get(key);
+            if (repo != null) {
+                return repo;
             }
-            repo = new AllowedArtifactsListMavenRepository(properties).withBaseRepository(repo);
-        }
-        if (maxPlugins != null) {
-            repo = new TruncatedMavenRepository(maxPlugins).withBaseRepository(repo);
-        }
-        if (onlyExperimental) {
-            repo = new AlphaBetaOnlyRepository(false).withBaseRepository(repo);
-        }
-        if (!includeExperimental) {
-            repo = new AlphaBetaOnlyRepository(true).withBaseRepository(repo);
+
+            repo = DefaultMavenRepositoryBuilder.getInstance();
+            if (allowedArtifactsListFile != null) {
+                final Properties properties = new Properties();
+                try (FileInputStream fis = new FileInputStream(allowedArtifactsListFile)) {
+                    properties.load(fis);
+                }
+                repo = new AllowedArtifactsListMavenRepository(properties).withBaseRepository(repo);
+            }
+            if (maxPlugins != null) {
+                repo = new TruncatedMavenRepository(maxPlugins).withBaseRepository(repo);
+            }
+            if (onlyExperimental) {
+                repo = new AlphaBetaOnlyRepository(false).withBaseRepository(repo);
+            }
+            if (!includeExperimental) {
+                repo = new AlphaBetaOnlyRepository(true).withBaseRepository(repo);
+            }
+            repo = new CachingMavenRepository().withBaseRepository(repo);
+            pluginRepositories.put(key, repo);
+            return repo;
         }
-        LatestPluginVersions.initialize(repo);
     }
 
     private MavenRepository createRepository() throws Exception {
 
-        MavenRepository repo = DefaultMavenRepositoryBuilder.getInstance();
-        if (allowedArtifactsListFile != null) {
-            final Properties properties = new Properties();
-            try (FileInputStream fis = new FileInputStream(allowedArtifactsListFile)) {
-                properties.load(fis);
-            }
-            repo = new AllowedArtifactsListMavenRepository(properties).withBaseRepository(repo);
-        }
-        if (maxPlugins != null) {
-            repo = new TruncatedMavenRepository(maxPlugins).withBaseRepository(repo);
-        }
-        if (onlyExperimental) {
-            repo = new AlphaBetaOnlyRepository(false).withBaseRepository(repo);
-        }
-        if (!includeExperimental) {
-            repo = new AlphaBetaOnlyRepository(true).withBaseRepository(repo);
-        }
+        MavenRepository repo = getPluginRepository();
         if (stableCore) {
             repo = new StableWarMavenRepository().withBaseRepository(repo);
         }
@@ -365,6 +806,7 @@ public class Main {
     private static final String RECENT_RELEASES_JSON_FILENAME = "recent-releases.json";
     private static final String PLATFORM_PLUGINS_JSON_FILENAME = "platform-plugins.json";
     private static final String PLATFORM_PLUGINS_RESOURCE_FILENAME = "platform-plugins.json";
+    private static final String GENERATION_REPORT_SUFFIX = "-report.json";
     private static final String EOL = System.getProperty("line.separator");
 
     private static final Logger LOGGER = Logger.getLogger(Main.class.getName());
@@ -27,6 +27,7 @@ import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.TypeReference;
 import com.alibaba.fastjson.annotation.JSONField;
 import io.jenkins.update_center.util.Environment;
+import io.jenkins.update_center.util.FetchStatistics;
 import org.apache.commons.io.IOUtils;
 
 import java.io.IOException;
@@ -44,14 +45,14 @@ import java.util.stream.Collectors;
 public class MaintainersSource {
     private static final Logger LOGGER = Logger.getLogger(MaintainersSource.class.getName());
 
-    private static final String PLUGIN_MAINTAINERS_DATA_URL = Environment.getString("PLUGIN_MAINTAINERS_DATA_URL", "https://reports.jenkins.io/maintainers.index.json");
-    private static final String MAINTAINERS_INFO_URL = Environment.getString("MAINTAINERS_INFO_URL", "https://reports.jenkins.io/maintainers-info-report.json");
+    private final String pluginMaintainersDataUrl = Environment.getString("PLUGIN_MAINTAINERS_DATA_URL", "https://reports.jenkins.io/maintainers.index.json");
+    private final String maintainersInfoUrl = Environment.getString("MAINTAINERS_INFO_URL", "https://reports.jenkins.io/maintainers-info-report.json");
 
     private Map<String, List<String>> pluginToMaintainers;
     private Map<String, Maintainer> maintainerInfo;
 
     /**
-     * Utility class for parsing JSON from {@link #MAINTAINERS_INFO_URL}.
+     * Utility class for parsing JSON from {@link #maintainersInfoUrl}.
      */
     private static class JsonMaintainer {
         @JSONField
@@ -83,6 +84,11 @@ public class MaintainersSource {
         }
     }
 
+    void fingerprint(InputFingerprint fingerprint) {
+        fingerprint.add("maintainers.plugins", pluginToMaintainers);
+        fingerprint.add("maintainers.info", maintainerInfo);
+    }
+
     private static MaintainersSource instance;
 
     public static synchronized MaintainersSource getInstance() {
@@ -94,24 +100,31 @@ public class MaintainersSource {
         return instance;
     }
 
+    /**
+     * Discards the loaded data, so that it is loaded again on the next call to {@link #getInstance()}.
+     */
+    static synchronized void reset() {
+        instance = null;
+    }
+
     private void init() {
         // Obtain maintainer info
         try {
-            final String jsonData = IOUtils.toString(new URL(MAINTAINERS_INFO_URL), StandardCharsets.UTF_8);
+            final String jsonData = FetchStatistics.time("maintainers", () -> IOUtils.toString(new URL(maintainersInfoUrl), StandardCharsets.UTF_8));
             final List<JsonMaintainer> rawMaintainersInfo = JSON.parseObject(jsonData, new TypeReferenceForListOfJsonMaintainer().getType());
             maintainerInfo = new HashMap<>(rawMaintainersInfo.stream().map(m -> new AbstractMap.SimpleEntry<>(m.name, m.toMaintainer())).collect(Collectors.toMap(AbstractMap.SimpleEntry::getKey, AbstractMap.SimpleEntry::getValue)));
         } catch (RuntimeException | IOException ex) {
-            LOGGER.log(Level.WARNING, "Failed to process " + MAINTAINERS_INFO_URL, ex);
+            LOGGER.log(Level.WARNING, "Failed to process " + maintainersInfoUrl, ex);
             maintainerInfo = new HashMap<>();
         }
 
         // Obtain plugin/maintainers mapping
         try {
-            final String jsonData = IOUtils.toString(new URL(PLUGIN_MAINTAINERS_DATA_URL), StandardCharsets.UTF_8);
+            final String jsonData = FetchStatistics.time("maintainers", () -> IOUtils.toString(new URL(pluginMaintainersDataUrl), StandardCharsets.UTF_8));
             pluginToMaintainers = JSON.parseObject(jsonData, new TypeReferenceForHashMapFromStringToListOfString().getType());
         } catch (RuntimeException | IOException ex) {
             pluginToMaintainers = new HashMap<>();
-            LOGGER.log(Level.WARNING, "Failed to process" + PLUGIN_MAINTAINERS_DATA_URL, ex);
+            LOGGER.log(Level.WARNING, "Failed to process" + pluginMaintainersDataUrl, ex);
         }
     }
 
@@ -62,7 +62,7 @@ public class MavenArtifact {
         version = artifact.version;
     }
 
-    public File resolve() throws IOException {
+    public synchronized File resolve() throws IOException {
         try {
             if (hpi == null) {
                 hpi = repository.resolve(artifact);
@@ -82,7 +82,7 @@ public class MavenArtifact {
     }
 
     public VersionNumber getVersion() {
-        return new VersionNumber(version);
+        return artifact.getVersionNumber();
     }
 
     public boolean isAlphaOrBeta() {
@@ -119,7 +119,7 @@ public class MavenArtifact {
         return repository.getMetadata(this).timestamp;
     }
 
-    public Manifest getManifest() throws IOException {
+    public synchronized Manifest getManifest() throws IOException {
         if (manifest==null) {
             manifest = repository.getManifest(this);
         }
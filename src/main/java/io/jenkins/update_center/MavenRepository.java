@@ -42,6 +42,17 @@ public interface MavenRepository {
         return resolve(new ArtifactCoordinates(a.groupId, a.artifactId, a.version, packaging));
     }
 
+    /**
+     * Retrieve the files needed to generate update site metadata for the specified plugins ahead of time.
+     * Implementations for which this makes no difference do nothing.
+     *
+     * @param plugins the plugins to retrieve files for
+     * @throws IOException when an exception contacting the artifacts repository occurs
+     */
+    default void prefetch(Collection<Plugin> plugins) throws IOException {
+        // nothing to do by default
+    }
+
     /**
      * Discover all plugins from this Maven repository in order released, not using PluginHistory.
      * Only the latest release for a given release on a given day will be included.
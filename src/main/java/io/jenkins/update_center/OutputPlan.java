@@ -0,0 +1,186 @@
+package io.jenkins.update_center;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import io.jenkins.update_center.util.PrecompressedFiles;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * The changes generating update sites would make to existing output directories, see {@code --plan}.
+ *
+ * <p>Generation timestamps and signatures in JSON and HTML files (and their gzip-compressed copies) are ignored when
+ * comparing files, as they change every time an update site is generated.</p>
+ */
+public class OutputPlan {
+    private static final Logger LOGGER = Logger.getLogger(OutputPlan.class.getName());
+
+    private static final Pattern GENERATION_TIMESTAMP = Pattern.compile("\"generationTimestamp\"\\s*:\\s*\"[^\"]*\"");
+    private static final Pattern SIGNATURE = Pattern.compile("\"signature\"\\s*:\\s*\\{[^{}]*}");
+
+    public enum Change {
+        ADDED, MODIFIED, REMOVED, UNCHANGED;
+
+        @Override
+        public String toString() {
+            return name().toLowerCase(Locale.US);
+        }
+    }
+
+    /**
+     * By absolute path. If a file is written by more than one update site, the last one determines the change.
+     */
+    private final Map<String, Change> files = new TreeMap<>();
+
+    /**
+     * Records the change to a single file.
+     *
+     * @param file the file
+     * @param change the change to the file
+     */
+    public synchronized void record(@Nonnull File file, @Nonnull Change change) {
+        files.put(file.getAbsoluteFile().toPath().normalize().toString(), change);
+    }
+
+    /**
+     * Compares the files generated into a staging location with those in the existing location.
+     * Files in the existing location that were not generated are recorded as removed.
+     *
+     * @param staged the generated file or directory
+     * @param existing the existing file or directory that would be replaced by the generated one
+     * @throws IOException when reading files fails
+     */
+    public void compare(@Nonnull File staged, @Nonnull File existing) throws IOException {
+        final Set<String> paths = new TreeSet<>();
+        paths.addAll(list(staged.toPath()));
+        paths.addAll(list(existing.toPath()));
+        for (String path : paths) {
+            final Path stagedFile = path.isEmpty() ? staged.toPath() : staged.toPath().resolve(path);
+            final Path existingFile = path.isEmpty() ? existing.toPath() : existing.toPath().resolve(path);
+            final Change change;
+            if (!Files.exists(existingFile, LinkOption.NOFOLLOW_LINKS)) {
+                change = Change.ADDED;
+            } else if (!Files.exists(stagedFile, LinkOption.NOFOLLOW_LINKS)) {
+                change = Change.REMOVED;
+            } else {
+                change = Objects.equals(hash(stagedFile), hash(existingFile)) ? Change.UNCHANGED : Change.MODIFIED;
+            }
+            record(existingFile.toFile(), change);
+        }
+    }
+
+    /**
+     * @return the relative paths of regular files and symbolic links in the specified directory, or the empty path if it is a file
+     */
+    private static List<String> list(Path path) throws IOException {
+        List<String> ret = new ArrayList<>();
+        if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+            try (Stream<Path> stream = Files.walk(path)) {
+                for (Path file : stream.filter(p -> !Files.isDirectory(p, LinkOption.NOFOLLOW_LINKS)).collect(Collectors.toList())) {
+                    ret.add(path.relativize(file).toString());
+                }
+            }
+        } else if (Files.exists(path, LinkOption.NOFOLLOW_LINKS)) {
+            ret.add("");
+        }
+        return ret;
+    }
+
+    private static String hash(Path file) throws IOException {
+        if (Files.isSymbolicLink(file)) {
+            return "link:" + Files.readSymbolicLink(file);
+        }
+        String name = file.getFileName().toString();
+        final boolean gzip = name.endsWith(PrecompressedFiles.GZIP_SUFFIX);
+        if (gzip) {
+            // compare the content of precompressed files like that of the files they were created from
+            name = name.substring(0, name.length() - PrecompressedFiles.GZIP_SUFFIX.length());
+        }
+        if (name.endsWith(".json") || name.endsWith(".html")) {
+            String content;
+            try (InputStream is = gzip ? new GZIPInputStream(Files.newInputStream(file)) : Files.newInputStream(file)) {
+                content = IOUtils.toString(is, StandardCharsets.UTF_8);
+            }
+            content = GENERATION_TIMESTAMP.matcher(content).replaceAll("");
+            content = SIGNATURE.matcher(content).replaceAll("");
+            return DigestUtils.sha256Hex(content);
+        }
+        try (InputStream is = Files.newInputStream(file)) {
+            return DigestUtils.sha256Hex(is);
+        }
+    }
+
+    /**
+     * @return the number of files for each kind of change
+     */
+    public synchronized Map<Change, Integer> getSummary() {
+        Map<Change, Integer> ret = new LinkedHashMap<>();
+        for (Change change : Change.values()) {
+            ret.put(change, 0);
+        }
+        files.values().forEach(change -> ret.merge(change, 1, Integer::sum));
+        return ret;
+    }
+
+    /**
+     * @return the plan as a JSON compatible map, listing all changed files
+     */
+    public synchronized Map<String, Object> toMap() {
+        Map<String, Object> ret = new LinkedHashMap<>();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        getSummary().forEach((change, count) -> summary.put(change.toString(), count));
+        ret.put("summary", summary);
+        List<Map<String, Object>> changes = new ArrayList<>();
+        files.forEach((path, change) -> {
+            if (change != Change.UNCHANGED) {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("path", path);
+                entry.put("change", change.toString());
+                changes.add(entry);
+            }
+        });
+        ret.put("changes", changes);
+        return ret;
+    }
+
+    /**
+     * Logs the number of changed files, and writes the list of changes.
+     *
+     * @param file the file to write the list of changes to, as JSON, or {@code null} to print it to standard output
+     * @throws IOException when writing fails
+     */
+    public void write(@CheckForNull File file) throws IOException {
+        LOGGER.log(Level.INFO, "Planned changes: " + getSummary());
+        final String json = JSON.toJSONString(toMap(), SerializerFeature.PrettyFormat);
+        if (file == null) {
+            System.out.println(json);
+        } else {
+            Files.write(file.toPath(), json.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
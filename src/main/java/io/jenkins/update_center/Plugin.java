@@ -26,9 +26,13 @@ package io.jenkins.update_center;
 import hudson.util.VersionNumber;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -44,6 +48,8 @@ public final class Plugin {
 
     private final TreeMap<VersionNumber,HPI> artifacts = new TreeMap<>(VersionNumber.DESCENDING);
 
+    private final NavigableMap<VersionNumber,HPI> unmodifiableArtifacts = Collections.unmodifiableNavigableMap(artifacts);
+
     private final Set<VersionNumber> duplicateVersions = new TreeSet<>();
 
     public Plugin(String shortName) {
@@ -70,7 +76,7 @@ public final class Plugin {
     public void addArtifact(HPI hpi) throws IOException {
         VersionNumber v;
         try {
-            v = new VersionNumber(hpi.version);
+            v = hpi.getVersion();
         } catch (NumberFormatException e) {
             LOGGER.log(Level.WARNING, "Failed to parse version number " + hpi.version + " for " + hpi);
             return;
@@ -146,9 +152,26 @@ public final class Plugin {
     /**
      * All discovered versions, by the version numbers, newer versions first.
      *
-     * @return a map from version number to HPI
+     * @return an unmodifiable map from version number to HPI
+     */
+    public NavigableMap<VersionNumber, HPI> getArtifacts() {
+        return unmodifiableArtifacts;
+    }
+
+    /**
+     * Creates a view of this plugin limited to the releases matching the predicate.
+     * The view shares the {@link HPI} instances (and any data they have already loaded) with this plugin.
+     *
+     * @param predicate the releases to retain
+     * @return the filtered plugin, possibly without any releases
      */
-    public TreeMap<VersionNumber, HPI> getArtifacts() {
-        return artifacts;
+    public Plugin filter(Predicate<HPI> predicate) {
+        Plugin ret = new Plugin(artifactId);
+        for (Map.Entry<VersionNumber, HPI> entry : artifacts.entrySet()) {
+            if (predicate.test(entry.getValue())) {
+                ret.artifacts.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return ret;
     }
 }
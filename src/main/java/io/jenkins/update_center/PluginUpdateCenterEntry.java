@@ -1,14 +1,24 @@
 package io.jenkins.update_center;
 
+import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.annotation.JSONField;
+import com.alibaba.fastjson.serializer.JSONSerializable;
+import com.alibaba.fastjson.serializer.JSONSerializer;
+import com.alibaba.fastjson.serializer.JavaBeanSerializer;
+import com.alibaba.fastjson.serializer.SerializeWriter;
+import com.alibaba.fastjson.serializer.SerializerFeature;
 import hudson.util.VersionNumber;
 import io.jenkins.update_center.util.JavaSpecificationVersion;
 
 import javax.annotation.CheckForNull;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
@@ -19,7 +29,7 @@ import java.util.logging.Logger;
  * An entry of a plugin in the update center metadata.
  *
  */
-public class PluginUpdateCenterEntry {
+public class PluginUpdateCenterEntry implements JSONSerializable {
     /**
      * Plugin artifact ID.
      */
@@ -34,15 +44,37 @@ public class PluginUpdateCenterEntry {
      */
     @CheckForNull
     private transient final HPI previousOffered;
+    /**
+     * Latest published versions of plugins, including those not offered by this update site.
+     */
+    private transient final LatestPluginVersions latestPluginVersions;
+    /**
+     * Serialized entries shared with other update sites, if any.
+     */
+    @CheckForNull
+    private transient final PluginUpdateCenterEntryCache cache;
 
-    private PluginUpdateCenterEntry(String artifactId, HPI latestOffered, HPI previousOffered) {
+    private PluginUpdateCenterEntry(String artifactId, HPI latestOffered, HPI previousOffered, LatestPluginVersions latestPluginVersions) {
         this.artifactId = artifactId;
         this.latestOffered = latestOffered;
         this.previousOffered = previousOffered;
+        this.latestPluginVersions = latestPluginVersions;
+        this.cache = null;
     }
 
-    public PluginUpdateCenterEntry(Plugin plugin) {
+    public PluginUpdateCenterEntry(Plugin plugin, LatestPluginVersions latestPluginVersions) {
+        this(plugin, latestPluginVersions, null);
+    }
+
+    /**
+     * @param plugin the plugin
+     * @param latestPluginVersions the latest published versions of plugins
+     * @param cache reuse the JSON of identical entries of other update sites from this cache, and add this entry to it
+     */
+    public PluginUpdateCenterEntry(Plugin plugin, LatestPluginVersions latestPluginVersions, @CheckForNull PluginUpdateCenterEntryCache cache) {
         this.artifactId = plugin.getArtifactId();
+        this.latestPluginVersions = latestPluginVersions;
+        this.cache = cache;
         HPI previous = null, latest = null;
 
         Iterator<HPI> it = plugin.getArtifacts().values().iterator();
@@ -73,8 +105,90 @@ public class PluginUpdateCenterEntry {
         this.previousOffered = previous == latest ? null : previous;
     }
 
-    public PluginUpdateCenterEntry(HPI hpi) {
-        this(hpi.artifact.artifactId, hpi,  null);
+    public PluginUpdateCenterEntry(HPI hpi, LatestPluginVersions latestPluginVersions) {
+        this(hpi.artifact.artifactId, hpi,  null, latestPluginVersions);
+    }
+
+    HPI getLatestOffered() {
+        return latestOffered;
+    }
+
+    @CheckForNull
+    HPI getPreviousOffered() {
+        return previousOffered;
+    }
+
+    /**
+     * @return whether this entry will be serialized by copying an identical entry of another update site
+     */
+    @JSONField(serialize = false)
+    public boolean isCached() {
+        return cache != null && cache.contains(this);
+    }
+
+    /**
+     * Compact JSON is copied from (or added to) the cache, if there is one. Pretty-printed JSON depends on the nesting,
+     * and is always generated.
+     */
+    @Override
+    public void write(JSONSerializer serializer, Object fieldName, Type fieldType, int features) throws IOException {
+        if (cache == null || serializer.out.isEnabled(SerializerFeature.PrettyFormat)) {
+            SERIALIZER.write(serializer, this, fieldName, fieldType, features);
+        } else {
+            serializer.out.write(cache.get(this, () -> {
+                try (SerializeWriter out = new SerializeWriter(null, JSON.DEFAULT_GENERATE_FEATURE, SerializerFeature.DisableCircularReferenceDetect)) {
+                    SERIALIZER.write(new JSONSerializer(out), this, fieldName, fieldType, features);
+                    return out.toString();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        }
+    }
+
+    /**
+     * Loads the data of this entry that would otherwise be loaded on demand during serialization.
+     * Failures are ignored here, they occur again (and are handled) when the data is needed.
+     */
+    public void prefetch() {
+        prefetchArtifactData();
+        prefetchExternalData();
+    }
+
+    /**
+     * Like {@link #prefetch()}, but only loads the data from the plugin's files, e.g. its manifest and POM.
+     */
+    public void prefetchArtifactData() {
+        try {
+            getName();
+            getRequiredCore();
+            getCompatibleSinceVersion();
+            getMinimumJavaVersion();
+            getBuildDate();
+            getDependencies();
+            getSha1();
+            getExcerpt();
+            getReleaseTimestamp();
+            getPreviousTimestamp();
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.FINE, e, () -> "Failed to prefetch data for " + artifactId);
+        }
+    }
+
+    /**
+     * Like {@link #prefetch()}, but only loads the data from other sources, e.g. GitHub and the maintainers list.
+     */
+    public void prefetchExternalData() {
+        try {
+            getScm();
+            getLabels();
+            getDefaultBranch();
+            getPopularity();
+            getDevelopers();
+            getIssueTrackers();
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.FINE, e, () -> "Failed to prefetch data for " + artifactId);
+        }
     }
 
     /**
@@ -175,11 +289,11 @@ public class PluginUpdateCenterEntry {
     }
 
     public String getReleaseTimestamp() throws IOException {
-        return TIMESTAMP_FORMATTER.format(latestOffered.getTimestamp());
+        return TIMESTAMP_FORMATTER.format(Instant.ofEpochMilli(latestOffered.getTimestamp()));
     }
 
     public String getPreviousTimestamp() throws IOException {
-        return previousOffered == null ? null : TIMESTAMP_FORMATTER.format(previousOffered.getTimestamp());
+        return previousOffered == null ? null : TIMESTAMP_FORMATTER.format(Instant.ofEpochMilli(previousOffered.getTimestamp()));
     }
 
     public int getPopularity() throws IOException {
@@ -187,8 +301,7 @@ public class PluginUpdateCenterEntry {
     }
 
     public String getLatest() {
-        final LatestPluginVersions instance = LatestPluginVersions.getInstance();
-        final VersionNumber latestPublishedVersion = instance.getLatestVersion(artifactId);
+        final VersionNumber latestPublishedVersion = latestPluginVersions.getLatestVersion(artifactId);
         if (latestPublishedVersion == null || latestPublishedVersion.equals(latestOffered.getVersion())) {
             // only include latest version information if the currently published version isn't the latest
             return null;
@@ -196,7 +309,12 @@ public class PluginUpdateCenterEntry {
         return latestPublishedVersion.toString();
     }
 
-    private static final SimpleDateFormat TIMESTAMP_FORMATTER = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'.00Z'", Locale.US);
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss'.00Z'", Locale.US).withZone(ZoneId.systemDefault());
+
+    /**
+     * Serializes the properties of entries, as this class takes over its own serialization.
+     */
+    private static final JavaBeanSerializer SERIALIZER = new JavaBeanSerializer(PluginUpdateCenterEntry.class);
 
     private static final Logger LOGGER = Logger.getLogger(PluginUpdateCenterEntry.class.getName());
 }
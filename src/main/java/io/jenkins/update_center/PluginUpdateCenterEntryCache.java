@@ -0,0 +1,75 @@
+package io.jenkins.update_center;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Serialized (compact JSON) {@link PluginUpdateCenterEntry plugin entries}, shared by the update sites generated from
+ * the same data. Many update sites offer the same releases of a plugin, and their entries are then identical.
+ *
+ * <p>Entries are identified by the releases they describe and the latest published version. Everything else in an
+ * entry (e.g. GitHub labels, maintainers, popularity) comes from sources that are loaded once for all update sites,
+ * so a new cache needs to be used whenever these are reloaded.</p>
+ */
+public final class PluginUpdateCenterEntryCache {
+
+    private final Map<Key, String> fragments = new ConcurrentHashMap<>();
+
+    /**
+     * @param entry the plugin entry
+     * @return whether the entry has been serialized before
+     */
+    public boolean contains(@Nonnull PluginUpdateCenterEntry entry) {
+        return fragments.containsKey(new Key(entry));
+    }
+
+    /**
+     * @param entry the plugin entry
+     * @param serializer serializes the entry, if it has not been serialized before
+     * @return the serialized entry
+     */
+    String get(@Nonnull PluginUpdateCenterEntry entry, @Nonnull Supplier<String> serializer) {
+        return fragments.computeIfAbsent(new Key(entry), key -> serializer.get());
+    }
+
+    /**
+     * @return the number of serialized entries
+     */
+    public int size() {
+        return fragments.size();
+    }
+
+    private static final class Key {
+        // HPI does not implement equals, but the same release is the same object in all update sites
+        private final HPI latestOffered;
+        private final HPI previousOffered;
+        private final String latest;
+
+        private Key(PluginUpdateCenterEntry entry) {
+            this.latestOffered = entry.getLatestOffered();
+            this.previousOffered = entry.getPreviousOffered();
+            this.latest = entry.getLatest();
+        }
+
+        @Override
+        public boolean equals(@CheckForNull Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return latestOffered == key.latestOffered && previousOffered == key.previousOffered && Objects.equals(latest, key.latest);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(latestOffered), System.identityHashCode(previousOffered), latest);
+        }
+    }
+}
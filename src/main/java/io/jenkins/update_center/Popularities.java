@@ -1,6 +1,8 @@
 package io.jenkins.update_center;
 
 import com.alibaba.fastjson.JSON;
+import io.jenkins.update_center.util.Environment;
+import io.jenkins.update_center.util.FetchStatistics;
 import io.jenkins.update_center.util.HttpHelper;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
@@ -21,7 +23,7 @@ import java.util.stream.Collectors;
  */
 public class Popularities {
 
-    private static final String JSON_URL = "https://raw.githubusercontent.com/jenkins-infra/infra-statistics/gh-pages/plugin-installation-trend/latestNumbers.json";
+    private static final String DEFAULT_JSON_URL = "https://raw.githubusercontent.com/jenkins-infra/infra-statistics/gh-pages/plugin-installation-trend/latestNumbers.json";
     // or https://stats.jenkins.io/plugin-installation-trend/latestNumbers.json
 
     private static Popularities instance;
@@ -33,13 +35,14 @@ public class Popularities {
     }
 
     private static void initialize() throws IOException {
-        Request request = new Request.Builder().url(JSON_URL).get().build();
+        final String url = Environment.getString("PLUGIN_POPULARITIES_JSON_URL", DEFAULT_JSON_URL);
+        Request request = new Request.Builder().url(url).get().build();
 
-        String bodyString = HttpHelper.getResponseBody(new OkHttpClient(), request);
+        String bodyString = FetchStatistics.time("popularities", () -> HttpHelper.getResponseBody(new OkHttpClient(), request));
 
         JsonResponse response = JSON.parseObject(bodyString, JsonResponse.class);
         if (response.plugins == null) {
-            throw new IllegalArgumentException("Specified popularity URL '" + JSON_URL + "' does not contain a JSON object 'plugins'");
+            throw new IllegalArgumentException("Specified popularity URL '" + url + "' does not contain a JSON object 'plugins'");
         }
 
         Map<String, Integer> popularities = response.plugins.keySet().stream().collect(Collectors.toMap(Function.identity(), value -> Integer.valueOf(response.plugins.get(value))));
@@ -50,6 +53,10 @@ public class Popularities {
         public Map<String, String> plugins;
     }
 
+    void fingerprint(InputFingerprint fingerprint) {
+        fingerprint.add("popularities", popularities);
+    }
+
     public static synchronized Popularities getInstance() throws IOException {
         if (instance == null) {
             initialize();
@@ -57,6 +64,13 @@ public class Popularities {
         return instance;
     }
 
+    /**
+     * Discards the loaded data, so that it is loaded again on the next call to {@link #getInstance()}.
+     */
+    static synchronized void reset() {
+        instance = null;
+    }
+
     public int getPopularity(String pluginId) {
         return this.popularities.getOrDefault(pluginId, 0);
     }
@@ -15,9 +15,13 @@ import org.jvnet.hudson.crypto.CertificateUtil;
 import org.jvnet.hudson.crypto.SignatureOutputStream;
 import org.kohsuke.args4j.Option;
 
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -27,16 +31,25 @@ import java.security.KeyPair;
 import java.security.MessageDigest;
 import java.security.PrivateKey;
 import java.security.Signature;
+import java.security.cert.CertificateEncodingException;
 import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
 import java.security.cert.TrustAnchor;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -59,6 +72,31 @@ public class Signer {
 
     private static final int MINIMUM_VALIDITY_DURATION = Environment.getInteger("CERTIFICATE_MINIMUM_VALID_DAYS", 30);
 
+    private final AtomicInteger signedDocuments = new AtomicInteger();
+    private final AtomicLong signingNanos = new AtomicLong();
+    private final Map<String, Long> documentNanos = new ConcurrentHashMap<>();
+
+    /**
+     * @return the number of documents signed by this signer
+     */
+    public int getSignedDocuments() {
+        return signedDocuments.get();
+    }
+
+    /**
+     * @return the total time spent signing documents, in nanoseconds
+     */
+    public long getSigningNanos() {
+        return signingNanos.get();
+    }
+
+    /**
+     * @return the time spent signing each named document, in nanoseconds, by name
+     */
+    public Map<String, Long> getDocumentSigningNanos() {
+        return Collections.unmodifiableMap(new TreeMap<>(documentNanos));
+    }
+
     /**
      * Checks if the signer is properly configured to generate a signature
      *
@@ -80,31 +118,173 @@ public class Signer {
             return null;
         }
 
-        JsonSignature sign = new JsonSignature();
+        final Signing signing = newSigning(null);
+        try (OutputStreamWriter osw = new OutputStreamWriter(signing.getOutputStream(), StandardCharsets.UTF_8)) {
+            IOUtils.write(json, osw);
+        }
+        return signing.finish();
+    }
 
-        List<X509Certificate> certs = getCertificateChain();
-        X509Certificate signer = certs.get(0); // the first one is the signer, and the rest is the chain to a root CA.
+    /**
+     * Starts signing a document that is written to {@link Signing#getOutputStream()}, so that it does not need to be
+     * held in memory as a whole. Documents can be signed concurrently.
+     *
+     * @param document the name of the document, to report the time spent signing it, or {@code null}
+     * @return the signing of a single document
+     * @throws GeneralSecurityException when loading the certificates or key fails
+     * @throws IOException when reading the certificates or key fails
+     * @throws IllegalStateException when the signer is not configured
+     */
+    public Signing newSigning(@CheckForNull String document) throws GeneralSecurityException, IOException {
+        if (!isConfigured()) {
+            throw new IllegalStateException("No key and certificate to sign with");
+        }
+        final long start = System.nanoTime();
+        final Signing signing = new Signing(document, getSession());
+        signing.nanos += System.nanoTime() - start;
+        return signing;
+    }
 
-        PrivateKey key;
+    /**
+     * Returns the key and certificates from the files of this signer. They are loaded and validated once for all
+     * signers using the same files, unless the files are modified.
+     */
+    private Session getSession() throws GeneralSecurityException, IOException {
+        final List<String> key = new ArrayList<>();
+        final List<Long> lastModified = new ArrayList<>();
+        key.add(privateKey.getAbsolutePath());
+        lastModified.add(privateKey.lastModified());
+        for (List<File> files : Arrays.asList(certificates, rootCA)) {
+            key.add(files == null ? "0" : String.valueOf(files.size()));
+            if (files != null) {
+                for (File file : files) {
+                    key.add(file.getAbsolutePath());
+                    lastModified.add(file.lastModified());
+                }
+            }
+        }
+        synchronized (SESSIONS) {
+            Session session = SESSIONS.get(key);
+            if (session == null || !session.lastModified.equals(lastModified)) {
+                session = new Session(getCertificateChain(), loadPrivateKey(), lastModified);
+                SESSIONS.put(key, session);
+            }
+            return session;
+        }
+    }
+
+    private PrivateKey loadPrivateKey() throws IOException {
         try (PEMReader pem = new PEMReader(Files.newBufferedReader(privateKey.toPath(), StandardCharsets.UTF_8))) {
-             key = ((KeyPair) pem.readObject()).getPrivate();
+            final Object object = pem.readObject();
+            if (!(object instanceof KeyPair)) {
+                throw new IOException("Failed to load private key " + privateKey);
+            }
+            return ((KeyPair) object).getPrivate();
         }
+    }
 
-        // the correct signature (since Jenkins 1.433); no longer generate wrong signatures for older releases.
-        SignatureGenerator sg = new SignatureGenerator(signer, key);
+    /**
+     * Loaded key and certificates, shared by all signers in this process using the same files. Keyed by the paths of
+     * the files only, so a modified file replaces the entry loaded from it.
+     */
+    private static final Map<List<String>, Session> SESSIONS = new HashMap<>();
+
+    private static final class Session {
+        private final List<X509Certificate> certs;
+        private final PrivateKey key;
+        private final List<String> encodedCertificates = new ArrayList<>();
+        /**
+         * When the files were modified, to tell whether they need to be loaded again.
+         */
+        private final List<Long> lastModified;
+
+        private Session(List<X509Certificate> certs, PrivateKey key, List<Long> lastModified) throws CertificateEncodingException {
+            this.certs = certs;
+            this.key = key;
+            this.lastModified = lastModified;
+            for (X509Certificate cert : certs)
+                encodedCertificates.add(new String(Base64.encodeBase64(cert.getEncoded()), StandardCharsets.UTF_8));
+        }
 
-        try (OutputStreamWriter osw = new OutputStreamWriter(sg.out, StandardCharsets.UTF_8)) {
-            IOUtils.write(json, osw);
+        /**
+         * The certificates were valid when loaded, make sure they still are for long-running processes.
+         */
+        private void checkValidity() throws CertificateException {
+            final Date date = new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(MINIMUM_VALIDITY_DURATION));
+            for (X509Certificate cert : certs) {
+                cert.checkValidity(date);
+            }
         }
-        sg.fill(sign);
+    }
 
-        // and certificate chain
-        List<String> certificates = new ArrayList<>();
-        for (X509Certificate cert : certs)
-            certificates.add(new String(Base64.encodeBase64(cert.getEncoded()), StandardCharsets.UTF_8));
-        sign.setCertificates(certificates);
+    /**
+     * The signing of a single document. Can be only used once, and then it needs to be thrown away.
+     */
+    public final class Signing {
+        @CheckForNull
+        private final String document;
+        private final Session session;
+        private final SignatureGenerator sg;
+        private final OutputStream stream;
+        private long nanos;
+
+        private Signing(@CheckForNull String document, Session session) throws GeneralSecurityException {
+            this.document = document;
+            this.session = session;
+            session.checkValidity();
+
+            // the first one is the signer, and the rest is the chain to a root CA.
+            // the correct signature (since Jenkins 1.433); no longer generate wrong signatures for older releases.
+            sg = new SignatureGenerator(session.certs.get(0), session.key);
+
+            // only count the time spent computing digests and signatures, not producing the content
+            stream = new FilterOutputStream(sg.out) {
+                @Override
+                public void write(int b) throws IOException {
+                    final long start = System.nanoTime();
+                    out.write(b);
+                    nanos += System.nanoTime() - start;
+                }
+
+                @Override
+                public void write(@Nonnull byte[] b, int off, int len) throws IOException {
+                    final long start = System.nanoTime();
+                    out.write(b, off, len);
+                    nanos += System.nanoTime() - start;
+                }
+            };
+        }
 
-        return sign;
+        /**
+         * @return the stream to write the document to
+         */
+        public OutputStream getOutputStream() {
+            return stream;
+        }
+
+        /**
+         * @return the digests and signatures of the document written to {@link #getOutputStream()}, and the certificate chain
+         * @throws GeneralSecurityException when signing fails
+         */
+        public JsonSignature finish() throws GeneralSecurityException {
+            final long start = System.nanoTime();
+            try {
+                JsonSignature sign = new JsonSignature();
+                sg.fill(sign);
+
+                // and certificate chain
+                sign.setCertificates(new ArrayList<>(session.encodedCertificates));
+
+                return sign;
+            } finally {
+                final long total = nanos + System.nanoTime() - start;
+                signingNanos.addAndGet(total);
+                signedDocuments.incrementAndGet();
+                if (document != null) {
+                    documentNanos.merge(document, total, Long::sum);
+                }
+            }
+        }
     }
 
     /**
@@ -1,8 +1,9 @@
 package io.jenkins.update_center;
 
 import java.io.File;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class XmlCache {
     public static class CachedValue {
@@ -12,10 +13,23 @@ public class XmlCache {
         }
     }
 
-    private static Map<String, CachedValue> cache = new HashMap<>();
+    private static final Map<String, CachedValue> cache = new ConcurrentHashMap<>();
+
+    private static final AtomicLong hitCount = new AtomicLong();
+    private static final AtomicLong missCount = new AtomicLong();
 
     public static CachedValue readCache(File file, String xpath) {
-        return cache.getOrDefault(file + ":" + xpath, null);
+        final CachedValue value = cache.getOrDefault(file + ":" + xpath, null);
+        (value == null ? missCount : hitCount).incrementAndGet();
+        return value;
+    }
+
+    public static long getHitCount() {
+        return hitCount.get();
+    }
+
+    public static long getMissCount() {
+        return missCount.get();
     }
 
     public static void writeCache(File file, String xpath, String value) {
@@ -3,6 +3,7 @@ package io.jenkins.update_center.json;
 import com.alibaba.fastjson.annotation.JSONField;
 import io.jenkins.update_center.HPI;
 import io.jenkins.update_center.MavenArtifact;
+import io.jenkins.update_center.Plugin;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -21,13 +22,14 @@ class ReleaseHistoryDate {
     @JSONField
     public final List<ReleaseHistoryEntry> releases;
 
-    ReleaseHistoryDate(Date date, Map<String, HPI> pluginsById) {
+    ReleaseHistoryDate(Date date, Map<String, HPI> pluginsById, Map<String, Plugin> plugins) {
         SimpleDateFormat dateFormat = MavenArtifact.getDateFormat();
         this.date = dateFormat.format(date);
         List<ReleaseHistoryEntry> list = new ArrayList<>();
-        for (HPI hpi : pluginsById.values()) {
+        for (Map.Entry<String, HPI> entry : pluginsById.entrySet()) {
+            final HPI hpi = entry.getValue();
             try {
-                ReleaseHistoryEntry releaseHistoryEntry = new ReleaseHistoryEntry(hpi);
+                ReleaseHistoryEntry releaseHistoryEntry = new ReleaseHistoryEntry(hpi, plugins.get(entry.getKey()));
                 list.add(releaseHistoryEntry);
             } catch (Exception ex) {
                 LOGGER.log(Level.INFO, "Failed to retrieve plugin info for " + hpi.artifact.artifactId, ex);
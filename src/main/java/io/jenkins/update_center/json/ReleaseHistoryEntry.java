@@ -2,9 +2,11 @@ package io.jenkins.update_center.json;
 
 import com.alibaba.fastjson.annotation.JSONField;
 import io.jenkins.update_center.HPI;
+import io.jenkins.update_center.Plugin;
 
 import java.io.IOException;
 import java.util.Calendar;
+import java.util.Date;
 import java.util.GregorianCalendar;
 
 class ReleaseHistoryEntry {
@@ -25,24 +27,26 @@ class ReleaseHistoryEntry {
     @JSONField
     public Boolean firstRelease;
 
-    private static final Calendar DATE_CUTOFF = new GregorianCalendar();
+    private static final Date DATE_CUTOFF;
 
     static {
-        DATE_CUTOFF.add(Calendar.DAY_OF_MONTH, -31);
+        Calendar cutoff = new GregorianCalendar();
+        cutoff.add(Calendar.DAY_OF_MONTH, -31);
+        DATE_CUTOFF = cutoff.getTime();
     }
 
-    ReleaseHistoryEntry(HPI hpi) throws IOException {
-        if (hpi.getTimestampAsDate().after(DATE_CUTOFF.getTime())) {
+    ReleaseHistoryEntry(HPI hpi, Plugin plugin) throws IOException {
+        if (hpi.getTimestampAsDate().after(DATE_CUTOFF)) {
             title = hpi.getName();
             wiki = hpi.getPluginUrl();
         } else {
             title = null;
             wiki = null;
         }
-        if (hpi.getPlugin().getLatest() == hpi) {
+        if (plugin.getLatest() == hpi) {
             latestRelease = true;
         }
-        if (hpi.getPlugin().getFirst() == hpi) {
+        if (plugin.getFirst() == hpi) {
             firstRelease = true;
         }
         version = hpi.version;
@@ -3,10 +3,12 @@ package io.jenkins.update_center.json;
 import com.alibaba.fastjson.annotation.JSONField;
 import io.jenkins.update_center.HPI;
 import io.jenkins.update_center.MavenRepository;
+import io.jenkins.update_center.Plugin;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -16,8 +18,13 @@ public class ReleaseHistoryRoot extends WithoutSignature {
 
     public ReleaseHistoryRoot(MavenRepository repository) throws IOException {
         List<ReleaseHistoryDate> list = new ArrayList<>();
+        // Releases are flagged as first or latest in the plugins as listed by this repository, possibly filtered
+        Map<String, Plugin> plugins = new HashMap<>();
+        for (Plugin plugin : repository.listJenkinsPlugins()) {
+            plugins.put(plugin.getArtifactId(), plugin);
+        }
         for (Map.Entry<Date, Map<String, HPI>> entry : repository.listPluginsByReleaseDate().entrySet()) {
-            ReleaseHistoryDate releaseHistoryDate = new ReleaseHistoryDate(entry.getKey(), entry.getValue());
+            ReleaseHistoryDate releaseHistoryDate = new ReleaseHistoryDate(entry.getKey(), entry.getValue(), plugins);
             list.add(releaseHistoryDate);
         }
         this.releaseHistory = list;
@@ -28,6 +28,7 @@ import hudson.util.VersionNumber;
 import io.jenkins.update_center.HPI;
 import io.jenkins.update_center.JenkinsWar;
 import io.jenkins.update_center.MavenRepository;
+import io.jenkins.update_center.util.VersionNumbers;
 
 import java.io.IOException;
 import java.time.Instant;
@@ -68,7 +69,7 @@ public class TieredUpdateSitesGenerator extends WithoutSignature {
         if (!version.toString().matches("[0-9][.][0-9]+[.][1-9]")) {
             throw new IllegalArgumentException("Unexpected LTS version: " + version.toString());
         }
-        return new VersionNumber(version.getDigitAt(0) + "." + (version.getDigitAt(1) + 1));
+        return VersionNumbers.parse(version.getDigitAt(0) + "." + (version.getDigitAt(1) + 1));
     }
 
     private VersionNumber nextLtsReleaseAfterWeekly(VersionNumber dependencyVersion, Set<VersionNumber> keySet) {
@@ -92,7 +93,7 @@ public class TieredUpdateSitesGenerator extends WithoutSignature {
                 LOGGER.log(Level.WARNING, "Failed to determine required Jenkins version for " + v.getGavId());
                 return null;
             }
-        }).filter(Objects::nonNull).collect(Collectors.toSet()).stream().map(VersionNumber::new).sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+        }).filter(Objects::nonNull).collect(Collectors.toSet()).stream().map(VersionNumbers::parse).sorted(Comparator.reverseOrder()).collect(Collectors.toList());
 
         final TreeMap<VersionNumber, JenkinsWar> allJenkinsWarsByVersionNumber = this.repository.getJenkinsWarsByVersionNumber();
         final Set<VersionNumber> weeklyCores = new HashSet<>();
@@ -5,21 +5,35 @@ import com.alibaba.fastjson.annotation.JSONField;
 import com.google.common.base.Functions;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.jenkins.update_center.Deprecations;
+import io.jenkins.update_center.LatestPluginVersions;
 import io.jenkins.update_center.MavenRepository;
 import io.jenkins.update_center.PluginUpdateCenterEntry;
+import io.jenkins.update_center.PluginUpdateCenterEntryCache;
 import io.jenkins.update_center.Plugin;
+import io.jenkins.update_center.util.Environment;
+import io.jenkins.update_center.util.Pipeline;
 
+import javax.annotation.CheckForNull;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 public class UpdateCenterRoot extends WithSignature {
+    private static final int FETCH_THREADS = Environment.getInteger("UPDATE_CENTER_FETCH_THREADS", 8);
+    private static final int THREADS = Environment.getInteger("UPDATE_CENTER_PLUGIN_THREADS", 16);
+    private static final int ENRICH_THREADS = Environment.getInteger("UPDATE_CENTER_ENRICH_THREADS", 4);
+    private static final int QUEUE_SIZE = Environment.getInteger("UPDATE_CENTER_PIPELINE_QUEUE_SIZE", 32);
+
     @JSONField
     @SuppressFBWarnings(value = "SS_SHOULD_BE_STATIC", justification = "Accessed by JSON serializer")
     public final String updateCenterVersion = "1";
@@ -42,7 +56,24 @@ public class UpdateCenterRoot extends WithSignature {
     @JSONField
     public Map<String, UpdateCenterDeprecation> deprecations;
 
-    public UpdateCenterRoot(MavenRepository repo, File warningsJsonFile) throws IOException {
+    private final Map<String, Long> pluginEntryNanos = new ConcurrentHashMap<>();
+
+    private final Map<String, Pipeline.StageStatistics> pipelineStatistics;
+
+    private final AtomicInteger cachedPluginEntries = new AtomicInteger();
+
+    public UpdateCenterRoot(MavenRepository repo, File warningsJsonFile, LatestPluginVersions latestPluginVersions) throws IOException {
+        this(repo, warningsJsonFile, latestPluginVersions, null);
+    }
+
+    /**
+     * @param repo the repository
+     * @param warningsJsonFile the file with security warnings
+     * @param latestPluginVersions the latest published versions of plugins
+     * @param cache reuse the JSON of plugin entries identical to those of other update sites from this cache, if any
+     * @throws IOException when loading data fails
+     */
+    public UpdateCenterRoot(MavenRepository repo, File warningsJsonFile, LatestPluginVersions latestPluginVersions, @CheckForNull PluginUpdateCenterEntryCache cache) throws IOException {
         // load warnings
         final String warningsJsonText = String.join("", Files.readAllLines(warningsJsonFile.toPath(), StandardCharsets.UTF_8));
         warnings = Arrays.asList(JSON.parseObject(warningsJsonText, UpdateCenterWarning[].class));
@@ -50,14 +81,70 @@ public class UpdateCenterRoot extends WithSignature {
         // load deprecations
         deprecations = new TreeMap<>(Deprecations.getDeprecatedPlugins().stream().collect(Collectors.toMap(Functions.identity(), UpdateCenterRoot::deprecationForPlugin)));
 
-        for (Plugin plugin : repo.listJenkinsPlugins()) {
-            PluginUpdateCenterEntry entry = new PluginUpdateCenterEntry(plugin);
-            plugins.put(plugin.getArtifactId(), entry);
-        }
+        // Plugin entries load their data on demand, mostly from the repository and other sources over the network.
+        // Load it for all plugins in stages, so that downloads, parsing, and lookups in other sources overlap,
+        // and the data is readily available for serialization. Entries copied from the cache need no data.
+        pipelineStatistics = Pipeline.<Plugin>create(QUEUE_SIZE)
+                .then("fetch", FETCH_THREADS, plugin -> time(plugin.getArtifactId(), () -> {
+                    repo.prefetch(Collections.singletonList(plugin));
+                    return plugin;
+                }))
+                .then("parse", THREADS, plugin -> time(plugin.getArtifactId(), () -> {
+                    PluginUpdateCenterEntry entry = new PluginUpdateCenterEntry(plugin, latestPluginVersions, cache);
+                    if (entry.isCached()) {
+                        cachedPluginEntries.incrementAndGet();
+                    } else {
+                        entry.prefetchArtifactData();
+                    }
+                    return entry;
+                }))
+                .then("enrich", ENRICH_THREADS, entry -> time(entry.artifactId, () -> {
+                    if (!entry.isCached()) {
+                        entry.prefetchExternalData();
+                    }
+                    return entry;
+                }))
+                .run(repo.listJenkinsPlugins(), entry -> plugins.put(entry.artifactId, entry));
 
         core = new UpdateCenterCore(repo.getJenkinsWarsByVersionNumber());
     }
 
+    /**
+     * Not a getter, so it is not serialized.
+     *
+     * @return the time it took to load the data of each plugin entry, in nanoseconds, by plugin ID
+     */
+    public Map<String, Long> pluginEntryNanos() {
+        return Collections.unmodifiableMap(pluginEntryNanos);
+    }
+
+    /**
+     * Not a getter, so it is not serialized.
+     *
+     * @return the statistics of each stage loading the data of plugin entries, by name
+     */
+    public Map<String, Pipeline.StageStatistics> pipelineStatistics() {
+        return Collections.unmodifiableMap(pipelineStatistics);
+    }
+
+    /**
+     * Not a getter, so it is not serialized.
+     *
+     * @return the number of plugin entries whose JSON is copied from identical entries of other update sites
+     */
+    public int cachedPluginEntries() {
+        return cachedPluginEntries.get();
+    }
+
+    private <T> T time(String artifactId, Callable<T> callable) throws Exception {
+        final long start = System.nanoTime();
+        try {
+            return callable.call();
+        } finally {
+            pluginEntryNanos.merge(artifactId, System.nanoTime() - start, Long::sum);
+        }
+    }
+
     private static UpdateCenterDeprecation deprecationForPlugin(String artifactId) {
         return new UpdateCenterDeprecation(Deprecations.getCustomDeprecationUri(artifactId));
     }
@@ -2,14 +2,26 @@ package io.jenkins.update_center.json;
 
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.annotation.JSONField;
+import com.alibaba.fastjson.serializer.JSONSerializer;
+import com.alibaba.fastjson.serializer.SerializeWriter;
 import com.alibaba.fastjson.serializer.SerializerFeature;
+import io.jenkins.update_center.Main;
 import io.jenkins.update_center.Signer;
+import io.jenkins.update_center.util.Environment;
+import io.jenkins.update_center.util.PrecompressedFiles;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.apache.commons.io.output.DeferredFileOutputStream;
+import org.apache.commons.io.output.TeeOutputStream;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
-import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -17,16 +29,27 @@ import java.security.GeneralSecurityException;
 import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Support generation of JSON output with included checksum + signatures block for the same JSON output.
  */
 public abstract class WithSignature {
+    /**
+     * The spooled JSON output is kept in memory up to this size (in bytes), larger output is spooled to a temporary file.
+     */
+    private static final int SPOOL_THRESHOLD = Environment.getInteger("SIGNED_JSON_SPOOL_THRESHOLD", 32 * 1024 * 1024);
+
     private JsonSignature signature;
+    private Runnable beforeSignature;
     private final String generationTimestamp = DateTimeFormatter.ISO_DATE_TIME.format(Instant.now().atOffset(ZoneOffset.UTC).withNano(0));
 
     @JSONField
     public JsonSignature getSignature() {
+        if (beforeSignature != null) {
+            // the serializer is about to write the signature, if there were one, see #writeWithSignature
+            beforeSignature.run();
+        }
         return signature;
     }
 
@@ -41,39 +64,105 @@ public abstract class WithSignature {
     }
 
     /**
-     * Generate JSON checksums and add a signature block to the JSON written to the specified {@link Writer}.
-     *
-     * This will run JSON generation twice: Once without the signature block to compute checksums, and a second time to
-     * include the signature block and write it to the output file.
+     * Generate JSON checksums and add a signature block to the JSON written to the specified {@link OutputStream}.
      *
-     * Because of this, it is important that (with the exception of {@link #getSignature()} all getters etc. of subtypes
-     * and any types reachable through the object graph for JSON generation return the same content on subsequent calls.
+     * The JSON without the signature block is generated once, and written to the signer and a spool at the same time.
+     * The serializer reports where it would have written the signature block, so it can be inserted there when the
+     * spooled content is copied to the output. The result is the same as generating the JSON again with the signature
+     * block.
      *
-     * Additionally, implementations of this class, and all types reachable via fields and getters used during JSON
-     * generation should employ some sort of caching to prevent expensive computations from being invoked twice.
+     * Pretty-printed output is still generated twice, as the signature is computed for the compact JSON: Once without
+     * the signature block to compute checksums, and a second time to include the signature block. Because of this, it
+     * is important that (with the exception of {@link #getSignature()} all getters etc. of subtypes and any types
+     * reachable through the object graph for JSON generation return the same content on subsequent calls.
      *
-     * @param writer the writer to write to
+     * @param os the stream to write to, it is not closed
      * @param signer the signer
      * @param pretty whether to pretty-print format the JSON output
      * @throws IOException when any IO error occurs
      * @throws GeneralSecurityException when an issue during signing occurs
      */
-    private void writeWithSignature(Writer writer, Signer signer, boolean pretty) throws IOException, GeneralSecurityException {
+    public void writeWithSignature(OutputStream os, Signer signer, boolean pretty) throws IOException, GeneralSecurityException {
         signature = null;
 
-        final String unsignedJson = JSON.toJSONString(this, SerializerFeature.DisableCircularReferenceDetect);
-        signature = signer.sign(unsignedJson);
+        if (!signer.isConfigured()) {
+            write(os, pretty);
+            return;
+        }
 
+        final Signer.Signing signing = signer.newSigning(getClass().getSimpleName());
         if (pretty) {
-            JSON.writeJSONString(writer, this, SerializerFeature.DisableCircularReferenceDetect, SerializerFeature.PrettyFormat);
-        } else {
-            JSON.writeJSONString(writer, this, SerializerFeature.DisableCircularReferenceDetect);
+            write(new CloseShieldOutputStream(signing.getOutputStream()), false);
+            signature = signing.finish();
+            write(os, true);
+            return;
+        }
+
+        final DeferredFileOutputStream spool = new DeferredFileOutputStream(SPOOL_THRESHOLD, "unsigned-", ".json", null);
+        try {
+            final AtomicLong position = new AtomicLong(-1);
+            try (Writer writer = new OutputStreamWriter(new TeeOutputStream(signing.getOutputStream(), spool), StandardCharsets.UTF_8)) {
+                final SerializeWriter out = new SerializeWriter(writer, JSON.DEFAULT_GENERATE_FEATURE, SerializerFeature.DisableCircularReferenceDetect);
+                beforeSignature = () -> {
+                    try {
+                        out.flush();
+                        writer.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    position.set(spool.getByteCount());
+                };
+                try {
+                    new JSONSerializer(out).write(this);
+                } finally {
+                    beforeSignature = null;
+                    out.close();
+                }
+            }
+            signature = signing.finish();
+
+            if (position.get() < 1) {
+                throw new IllegalStateException("Failed to determine the location of the signature in the JSON output of " + getClass().getName());
+            }
+            final byte[] signatureJson = ("\"signature\":" + JSON.toJSONString(signature, SerializerFeature.DisableCircularReferenceDetect)).getBytes(StandardCharsets.UTF_8);
+            try (InputStream in = spool.isInMemory() ? new ByteArrayInputStream(spool.getData()) : Files.newInputStream(spool.getFile().toPath())) {
+                IOUtils.copyLarge(in, os, 0, position.get() - 1);
+                final int previous = in.read();
+                final int next = in.read();
+                os.write(previous);
+                if (previous == '{') {
+                    os.write(signatureJson);
+                    if (next != '}') {
+                        os.write(',');
+                    }
+                } else {
+                    // properties are followed by a comma only once the next one is written
+                    os.write(',');
+                    os.write(signatureJson);
+                }
+                os.write(next);
+                IOUtils.copyLarge(in, os);
+            }
+        } finally {
+            if (!spool.isInMemory()) {
+                Files.deleteIfExists(spool.getFile().toPath());
+            }
+        }
+        os.flush();
+    }
+
+    private void write(OutputStream os, boolean pretty) throws IOException {
+        try (Writer writer = new OutputStreamWriter(new CloseShieldOutputStream(os), StandardCharsets.UTF_8)) {
+            if (pretty) {
+                JSON.writeJSONString(writer, this, SerializerFeature.DisableCircularReferenceDetect, SerializerFeature.PrettyFormat);
+            } else {
+                JSON.writeJSONString(writer, this, SerializerFeature.DisableCircularReferenceDetect);
+            }
         }
-        writer.flush();
     }
 
     /**
-     * Convenience wrapper for {@link #writeWithSignature(Writer, Signer, boolean)} writing to a file.
+     * Convenience wrapper for {@link #writeWithSignature(OutputStream, Signer, boolean)} writing to a file.
      *
      * @param outputFile the file to write to
      * @param signer the signer
@@ -82,8 +171,8 @@ public abstract class WithSignature {
      * @throws GeneralSecurityException when an issue during signing occurs
      */
     public void writeWithSignature(File outputFile, Signer signer, boolean pretty) throws IOException, GeneralSecurityException {
-        try (OutputStream os = Files.newOutputStream(outputFile.toPath()); OutputStreamWriter writer = new OutputStreamWriter(os, StandardCharsets.UTF_8)) {
-            writeWithSignature(writer, signer, pretty);
+        try (OutputStream os = PrecompressedFiles.newOutputStream(outputFile, Main.precompress)) {
+            writeWithSignature(os, signer, pretty);
         }
     }
 
@@ -96,8 +185,8 @@ public abstract class WithSignature {
      * @throws GeneralSecurityException when an issue during signing occurs
      */
     public String encodeWithSignature(Signer signer, boolean pretty)  throws IOException, GeneralSecurityException {
-        StringWriter writer = new StringWriter();
-        writeWithSignature(writer, signer, pretty);
-        return writer.getBuffer().toString();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writeWithSignature(baos, signer, pretty);
+        return new String(baos.toByteArray(), StandardCharsets.UTF_8);
     }
 }
@@ -2,11 +2,14 @@ package io.jenkins.update_center.json;
 
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.serializer.SerializerFeature;
+import io.jenkins.update_center.Main;
+import io.jenkins.update_center.util.PrecompressedFiles;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 
 public class WithoutSignature {
     public void write(File file, boolean pretty) throws IOException {
@@ -14,10 +17,12 @@ public class WithoutSignature {
         if (!parent.mkdirs() && !parent.isDirectory()) {
             throw new IOException("Failed to create " + parent);
         }
-        if (pretty) {
-            JSON.writeJSONString(Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8), this, SerializerFeature.DisableCircularReferenceDetect, SerializerFeature.PrettyFormat);
-        } else {
-            JSON.writeJSONString(Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8), this, SerializerFeature.DisableCircularReferenceDetect);
+        try (Writer writer = new OutputStreamWriter(PrecompressedFiles.newOutputStream(file, Main.precompress), StandardCharsets.UTF_8)) {
+            if (pretty) {
+                JSON.writeJSONString(writer, this, SerializerFeature.DisableCircularReferenceDetect, SerializerFeature.PrettyFormat);
+            } else {
+                JSON.writeJSONString(writer, this, SerializerFeature.DisableCircularReferenceDetect);
+            }
         }
     }
 }
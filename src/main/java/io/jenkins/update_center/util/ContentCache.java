@@ -0,0 +1,115 @@
+package io.jenkins.update_center.util;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Thread-safe in-memory cache of small file contents, bounded by the total number of bytes stored.
+ * The least recently used entries are evicted first.
+ */
+public final class ContentCache {
+
+    private final long maxWeight;
+
+    private final LinkedHashMap<String, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long weight;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * @param maxWeight the maximum total size of the cached values, in bytes
+     */
+    public ContentCache(long maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * @param key the key
+     * @return the cached value, or {@code null} if there is none. Callers must not modify the returned array.
+     */
+    @CheckForNull
+    public synchronized byte[] get(@Nonnull String key) {
+        final byte[] value = entries.get(key);
+        if (value == null) {
+            missCount++;
+        } else {
+            hitCount++;
+        }
+        return value;
+    }
+
+    /**
+     * @param key the key
+     * @return a stream reading the cached value without copying it, or {@code null} if there is none
+     */
+    @CheckForNull
+    public InputStream getInputStream(@Nonnull String key) {
+        final byte[] value = get(key);
+        return value == null ? null : new ByteArrayInputStream(value);
+    }
+
+    /**
+     * Adds or replaces a value, then evicts the least recently used entries until the cache is within its bounds.
+     * Values larger than the bound of the entire cache are not stored.
+     *
+     * @param key the key
+     * @param value the value. Callers must not modify the array after adding it.
+     */
+    public synchronized void put(@Nonnull String key, @Nonnull byte[] value) {
+        if (weigh(key, value) > maxWeight) {
+            return;
+        }
+        final byte[] previous = entries.put(key, value);
+        if (previous != null) {
+            weight -= weigh(key, previous);
+        }
+        weight += weigh(key, value);
+
+        final Iterator<Map.Entry<String, byte[]>> it = entries.entrySet().iterator();
+        while (weight > maxWeight && it.hasNext()) {
+            final Map.Entry<String, byte[]> eldest = it.next();
+            weight -= weigh(eldest.getKey(), eldest.getValue());
+            it.remove();
+            evictionCount++;
+        }
+    }
+
+    private static long weigh(String key, byte[] value) {
+        return (long) key.length() * 2 + value.length;
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return the approximate total size of the cached keys and values, in bytes
+     */
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ContentCache{entries=" + entries.size() + ", bytes=" + weight + ", hits=" + hitCount + ", misses=" + missCount + ", evictions=" + evictionCount + "}";
+    }
+}
@@ -0,0 +1,100 @@
+package io.jenkins.update_center.util;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-wide count and duration of requests to remote services, by kind of request.
+ */
+public final class FetchStatistics {
+
+    private static final ConcurrentMap<String, Counter> COUNTERS = new ConcurrentHashMap<>();
+
+    private FetchStatistics() {
+    }
+
+    /**
+     * Records a completed (successful or failed) request.
+     *
+     * @param kind the kind of request, e.g. the service it was sent to
+     * @param startNanos the value of {@link System#nanoTime()} when the request was started
+     */
+    public static void record(@Nonnull String kind, long startNanos) {
+        COUNTERS.computeIfAbsent(kind, k -> new Counter()).add(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Performs and records a request.
+     *
+     * @param kind the kind of request, e.g. the service it is sent to
+     * @param fetch the request
+     * @param <T> the type of the response
+     * @return the response
+     * @throws IOException when the request fails
+     */
+    public static <T> T time(@Nonnull String kind, @Nonnull Fetch<T> fetch) throws IOException {
+        final long start = System.nanoTime();
+        try {
+            return fetch.fetch();
+        } finally {
+            record(kind, start);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Fetch<T> {
+        T fetch() throws IOException;
+    }
+
+    /**
+     * @return copies of the current counters, by kind of request
+     */
+    public static Map<String, Counter> snapshot() {
+        Map<String, Counter> ret = new TreeMap<>();
+        COUNTERS.forEach((kind, counter) -> ret.put(kind, counter.copy()));
+        return ret;
+    }
+
+    public static final class Counter {
+        private long count;
+        private long nanos;
+
+        private synchronized void add(long nanos) {
+            this.count++;
+            this.nanos += nanos;
+        }
+
+        private synchronized Counter copy() {
+            Counter ret = new Counter();
+            ret.count = count;
+            ret.nanos = nanos;
+            return ret;
+        }
+
+        /**
+         * @param previous an earlier snapshot of this counter
+         * @return a counter of the requests recorded since the earlier snapshot
+         */
+        public synchronized Counter since(Counter previous) {
+            Counter ret = copy();
+            if (previous != null) {
+                ret.count -= previous.count;
+                ret.nanos -= previous.nanos;
+            }
+            return ret;
+        }
+
+        public synchronized long getCount() {
+            return count;
+        }
+
+        public synchronized long getMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(nanos);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package io.jenkins.update_center.util;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Processes items in a sequence of stages, each with its own threads, connected by bounded queues.
+ * A stage that falls behind makes the queue before it fill up, so the stages before it wait instead of
+ * piling up items in memory. Stages doing different kinds of work (network, CPU, disk) run at the same time.
+ *
+ * <p>Items are processed by each stage in no particular order. Stages run in threads created by {@link ThreadPools}.</p>
+ *
+ * @param <I> the type of the input items
+ * @param <O> the type of the items produced by the last stage
+ */
+public final class Pipeline<I, O> {
+
+    /**
+     * Marks the end of the items in a queue.
+     */
+    private static final Object END = new Object();
+
+    private final List<StageDefinition> stages;
+    private final int queueSize;
+
+    private Pipeline(List<StageDefinition> stages, int queueSize) {
+        this.stages = stages;
+        this.queueSize = queueSize;
+    }
+
+    /**
+     * @param queueSize the number of items that can wait between two stages
+     * @param <T> the type of the input items
+     * @return a pipeline without stages
+     */
+    public static <T> Pipeline<T, T> create(int queueSize) {
+        if (queueSize < 1) {
+            throw new IllegalArgumentException("Queue size must be positive: " + queueSize);
+        }
+        return new Pipeline<>(Collections.emptyList(), queueSize);
+    }
+
+    @FunctionalInterface
+    public interface Stage<T, R> {
+        /**
+         * @param item the item to process
+         * @return the item passed to the next stage, or {@code null} to drop it
+         * @throws Exception to abort the pipeline
+         */
+        @CheckForNull
+        R process(@Nonnull T item) throws Exception;
+    }
+
+    /**
+     * Adds a stage.
+     *
+     * @param name the name of the stage, used for thread names and statistics
+     * @param threads the number of items the stage processes concurrently
+     * @param stage the processing of each item
+     * @param <R> the type of the items produced by the stage
+     * @return a pipeline with the additional stage
+     */
+    @SuppressWarnings("unchecked")
+    public <R> Pipeline<I, R> then(@Nonnull String name, int threads, @Nonnull Stage<? super O, ? extends R> stage) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Stage " + name + " needs at least one thread: " + threads);
+        }
+        List<StageDefinition> list = new ArrayList<>(stages);
+        list.add(new StageDefinition(name, threads, (Stage<Object, Object>) stage));
+        return new Pipeline<>(list, queueSize);
+    }
+
+    private static final class StageDefinition {
+        private final String name;
+        private final int threads;
+        private final Stage<Object, Object> stage;
+
+        private StageDefinition(String name, int threads, Stage<Object, Object> stage) {
+            this.name = name;
+            this.threads = threads;
+            this.stage = stage;
+        }
+    }
+
+    /**
+     * Time spent by the threads of a stage, in total.
+     */
+    public static final class StageStatistics {
+        private final int threads;
+        private final AtomicLong items = new AtomicLong();
+        private final AtomicLong busyNanos = new AtomicLong();
+        private final AtomicLong starvedNanos = new AtomicLong();
+        private final AtomicLong blockedNanos = new AtomicLong();
+
+        private StageStatistics(int threads) {
+            this.threads = threads;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        /**
+         * @return the number of items processed
+         */
+        public long getItems() {
+            return items.get();
+        }
+
+        /**
+         * @return the time spent processing items
+         */
+        public long getBusyMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(busyNanos.get());
+        }
+
+        /**
+         * @return the time spent waiting for items from the previous stage
+         */
+        public long getStarvedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(starvedNanos.get());
+        }
+
+        /**
+         * @return the time spent waiting for the next stage to accept items
+         */
+        public long getBlockedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(blockedNanos.get());
+        }
+    }
+
+    /**
+     * Processes the specified items, and passes the results of the last stage to the specified consumer, on the
+     * calling thread.
+     *
+     * @param input the items to process
+     * @param output receives the results of the last stage
+     * @return the statistics of each stage, by name
+     * @throws IOException when a stage fails, or the calling thread is interrupted
+     */
+    public Map<String, StageStatistics> run(@Nonnull Iterable<? extends I> input, @Nonnull Consumer<? super O> output) throws IOException {
+        final List<BlockingQueue<Object>> queues = new ArrayList<>();
+        for (int i = 0; i <= stages.size(); i++) {
+            queues.add(new ArrayBlockingQueue<>(queueSize));
+        }
+        final Map<String, StageStatistics> statistics = new LinkedHashMap<>();
+        final AtomicReference<IOException> failure = new AtomicReference<>();
+        final List<Thread> threads = new ArrayList<>();
+
+        threads.add(ThreadPools.newThreadFactory("pipeline-input").newThread(() -> {
+            try {
+                for (I item : input) {
+                    queues.get(0).put(item);
+                }
+                queues.get(0).put(END);
+            } catch (InterruptedException e) {
+                // aborted
+            } catch (RuntimeException e) {
+                abort(failure, threads, new IOException("Failed to list items", e));
+            }
+        }));
+
+        for (int i = 0; i < stages.size(); i++) {
+            final StageDefinition definition = stages.get(i);
+            final BlockingQueue<Object> in = queues.get(i);
+            final BlockingQueue<Object> out = queues.get(i + 1);
+            final StageStatistics stageStatistics = new StageStatistics(definition.threads);
+            statistics.put(definition.name, stageStatistics);
+            final AtomicInteger running = new AtomicInteger(definition.threads);
+            final ThreadFactory threadFactory = ThreadPools.newThreadFactory("pipeline-" + definition.name);
+            for (int j = 0; j < definition.threads; j++) {
+                threads.add(threadFactory.newThread(() -> {
+                    try {
+                        while (true) {
+                            long start = System.nanoTime();
+                            final Object item = in.take();
+                            stageStatistics.starvedNanos.addAndGet(System.nanoTime() - start);
+                            if (item == END) {
+                                // for the other threads of this stage
+                                in.put(END);
+                                break;
+                            }
+
+                            start = System.nanoTime();
+                            final Object result;
+                            try {
+                                result = definition.stage.process(item);
+                            } finally {
+                                stageStatistics.busyNanos.addAndGet(System.nanoTime() - start);
+                                stageStatistics.items.incrementAndGet();
+                            }
+
+                            if (result != null) {
+                                start = System.nanoTime();
+                                out.put(result);
+                                stageStatistics.blockedNanos.addAndGet(System.nanoTime() - start);
+                            }
+                        }
+                        if (running.decrementAndGet() == 0) {
+                            out.put(END);
+                        }
+                    } catch (InterruptedException e) {
+                        // aborted
+                    } catch (Exception | Error e) {
+                        abort(failure, threads, new IOException("Failed to process item in stage " + definition.name, e));
+                    }
+                }));
+            }
+        }
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+
+        final BlockingQueue<Object> results = queues.get(stages.size());
+        try {
+            while (true) {
+                final Object item = results.poll(100, TimeUnit.MILLISECONDS);
+                if (failure.get() != null) {
+                    throw failure.get();
+                }
+                if (item == END) {
+                    break;
+                }
+                if (item != null) {
+                    @SuppressWarnings("unchecked")
+                    final O result = (O) item;
+                    output.accept(result);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while processing items", e);
+        } finally {
+            for (Thread thread : threads) {
+                thread.interrupt();
+            }
+        }
+        return statistics;
+    }
+
+    private static void abort(AtomicReference<IOException> failure, List<Thread> threads, IOException e) {
+        if (failure.compareAndSet(null, e)) {
+            for (Thread thread : threads) {
+                if (thread != Thread.currentThread()) {
+                    thread.interrupt();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package io.jenkins.update_center.util;
+
+import org.apache.commons.io.output.TeeOutputStream;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes files together with gzip-compressed copies next to them, that web servers can serve as is to clients
+ * accepting gzip encoding, instead of compressing the files for every request.
+ */
+public final class PrecompressedFiles {
+
+    public static final String GZIP_SUFFIX = ".gz";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private PrecompressedFiles() {
+    }
+
+    /**
+     * @param file the file
+     * @return the gzip-compressed copy of the file
+     */
+    public static File getGzipFile(@Nonnull File file) {
+        return new File(file.getPath() + GZIP_SUFFIX);
+    }
+
+    /**
+     * Opens a file for writing. If requested, the content is compressed into its {@link #getGzipFile(File) gzip sibling}
+     * at the same time, otherwise an existing sibling is deleted, so it does not outlive the content it was created from.
+     *
+     * @param file the file to write
+     * @param precompress whether to also write the gzip-compressed copy
+     * @return the stream writing the file, and its compressed copy
+     * @throws IOException when opening the files fails
+     */
+    public static OutputStream newOutputStream(@Nonnull File file, boolean precompress) throws IOException {
+        final File gzipFile = getGzipFile(file);
+        if (!precompress) {
+            Files.deleteIfExists(gzipFile.toPath());
+            return new BufferedOutputStream(Files.newOutputStream(file.toPath()), BUFFER_SIZE);
+        }
+
+        final OutputStream gzip = new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(gzipFile.toPath()), BUFFER_SIZE) {
+            {
+                // compressed once, served many times
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }, BUFFER_SIZE);
+        try {
+            return new TeeOutputStream(new BufferedOutputStream(Files.newOutputStream(file.toPath()), BUFFER_SIZE), gzip);
+        } catch (IOException | RuntimeException e) {
+            gzip.close();
+            throw e;
+        }
+    }
+}
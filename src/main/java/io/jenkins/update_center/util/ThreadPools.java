@@ -0,0 +1,162 @@
+package io.jenkins.update_center.util;
+
+import javax.annotation.Nonnull;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Creates the threads doing blocking work, like downloads and loading plugin data.
+ *
+ * <p>If the {@code VIRTUAL_THREADS} environment variable (or system property) is {@code true} and the Java runtime
+ * supports them (Java 21 or newer), these are virtual threads. Thread counts configured elsewhere then only limit how
+ * many tasks run at the same time, and can be much higher than the number of platform threads one would create.</p>
+ */
+public final class ThreadPools {
+    private static final Logger LOGGER = Logger.getLogger(ThreadPools.class.getName());
+
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+    private static final Object VIRTUAL_THREAD_BUILDER;
+    private static final Method VIRTUAL_THREAD_FACTORY;
+    private static final Method VIRTUAL_THREAD_NAME;
+
+    static {
+        Method newThreadPerTaskExecutor = null;
+        Object builder = null;
+        Method factory = null;
+        Method name = null;
+        if (Boolean.parseBoolean(Environment.getString("VIRTUAL_THREADS", "false"))) {
+            try {
+                // Thread.ofVirtual() and Executors.newThreadPerTaskExecutor(ThreadFactory) are not available in Java 8
+                builder = Thread.class.getMethod("ofVirtual").invoke(null);
+                final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+                factory = builderClass.getMethod("factory");
+                name = builderClass.getMethod("name", String.class, long.class);
+                newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+                LOGGER.log(Level.INFO, "Using virtual threads");
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Virtual threads are not supported by this Java runtime, using platform threads: " + e);
+                builder = null;
+            }
+        }
+        NEW_THREAD_PER_TASK_EXECUTOR = newThreadPerTaskExecutor;
+        VIRTUAL_THREAD_BUILDER = builder;
+        VIRTUAL_THREAD_FACTORY = factory;
+        VIRTUAL_THREAD_NAME = name;
+    }
+
+    private ThreadPools() {
+    }
+
+    /**
+     * @return whether virtual threads are used
+     */
+    public static boolean isVirtual() {
+        return VIRTUAL_THREAD_BUILDER != null;
+    }
+
+    /**
+     * @param name the prefix of the thread names, followed by a counter
+     * @return a factory of daemon threads, or virtual threads
+     */
+    public static ThreadFactory newThreadFactory(@Nonnull String name) {
+        if (isVirtual()) {
+            try {
+                // Virtual thread builders are not thread-safe, but the factories they create are
+                synchronized (VIRTUAL_THREAD_BUILDER) {
+                    return (ThreadFactory) VIRTUAL_THREAD_FACTORY.invoke(VIRTUAL_THREAD_NAME.invoke(VIRTUAL_THREAD_BUILDER, name + "-", 1L));
+                }
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Failed to create virtual thread factory", e);
+            }
+        }
+        final AtomicInteger count = new AtomicInteger();
+        return r -> {
+            final Thread thread = new Thread(r, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Creates an executor running up to the specified number of tasks at the same time.
+     * With platform threads, this is a fixed thread pool, with virtual threads, each task runs in a new thread.
+     *
+     * @param name the prefix of the thread names
+     * @param concurrency the maximum number of tasks running at the same time
+     * @return the executor
+     */
+    public static ExecutorService newExecutor(@Nonnull String name, int concurrency) {
+        if (isVirtual()) {
+            try {
+                return new BoundedExecutorService((ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, newThreadFactory(name)), concurrency);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Failed to create virtual thread executor", e);
+            }
+        }
+        return Executors.newFixedThreadPool(concurrency, newThreadFactory(name));
+    }
+
+    /**
+     * Limits the number of tasks of another executor running at the same time.
+     * Tasks waiting for their turn hold their (virtual) thread.
+     */
+    private static final class BoundedExecutorService extends AbstractExecutorService {
+        private final ExecutorService delegate;
+        private final Semaphore permits;
+
+        private BoundedExecutorService(ExecutorService delegate, int concurrency) {
+            this.delegate = delegate;
+            this.permits = new Semaphore(concurrency);
+        }
+
+        @Override
+        public void execute(@Nonnull Runnable command) {
+            if (command == null) {
+                throw new NullPointerException();
+            }
+            delegate.execute(() -> {
+                // If interrupted while waiting, the task still runs (with the interrupt status set) so futures complete
+                permits.acquireUninterruptibly();
+                try {
+                    command.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, @Nonnull TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+    }
+}
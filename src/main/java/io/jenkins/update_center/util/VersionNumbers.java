@@ -0,0 +1,33 @@
+package io.jenkins.update_center.util;
+
+import hudson.util.VersionNumber;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Canonical {@link VersionNumber} instances, so that each distinct version string is parsed only once
+ * and all artifacts with the same version share the parsed representation.
+ */
+public final class VersionNumbers {
+    private VersionNumbers() {}
+
+    private static final Map<String, VersionNumber> VERSIONS = new ConcurrentHashMap<>();
+
+    /**
+     * @param version the version string
+     * @return the canonical parsed version number
+     */
+    @Nonnull
+    public static VersionNumber parse(@Nonnull String version) {
+        return VERSIONS.computeIfAbsent(version, VersionNumber::new);
+    }
+
+    /**
+     * @return the number of distinct version strings parsed so far
+     */
+    public static int size() {
+        return VERSIONS.size();
+    }
+}
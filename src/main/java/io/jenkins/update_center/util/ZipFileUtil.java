@@ -0,0 +1,80 @@
+package io.jenkins.update_center.util;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Reads individual entries from local archives using their central directory, without extracting them.
+ */
+public final class ZipFileUtil {
+    private ZipFileUtil() {}
+
+    /**
+     * @param archive the archive
+     * @param path the path of the entry in the archive, with or without leading slash
+     * @return the content of the entry, or {@code null} if the archive does not contain it
+     * @throws IOException if the archive cannot be read
+     */
+    @CheckForNull
+    public static byte[] readEntry(@Nonnull File archive, @Nonnull String path) throws IOException {
+        try (ZipFile zip = new ZipFile(archive)) {
+            final ZipEntry entry = zip.getEntry(StringUtils.removeStart(path, "/"));
+            if (entry == null) {
+                return null;
+            }
+            try (InputStream is = zip.getInputStream(entry)) {
+                return IOUtils.toByteArray(is);
+            }
+        }
+    }
+
+    /**
+     * Reads an entry from an archive nested in another archive, like {@code index.jelly} from the plugin jar in an HPI.
+     * The nested archive is read sequentially, as it has no central directory accessible from the outer archive.
+     *
+     * @param archive the outer archive
+     * @param nestedArchivePath the path of the nested archive in the outer archive
+     * @param path the path of the entry in the nested archive, with or without leading slash
+     * @return the content of the entry, or {@code null} if either archive does not contain the respective entry
+     * @throws IOException if either archive cannot be read
+     */
+    @CheckForNull
+    public static byte[] readNestedEntry(@Nonnull File archive, @Nonnull String nestedArchivePath, @Nonnull String path) throws IOException {
+        final String entryName = StringUtils.removeStart(path, "/");
+        try (ZipFile zip = new ZipFile(archive)) {
+            final ZipEntry nested = zip.getEntry(StringUtils.removeStart(nestedArchivePath, "/"));
+            if (nested == null) {
+                return null;
+            }
+            try (ZipInputStream zis = new ZipInputStream(zip.getInputStream(nested))) {
+                ZipEntry entry;
+                while ((entry = zis.getNextEntry()) != null) {
+                    if (entry.getName().equals(entryName)) {
+                        return IOUtils.toByteArray(zis);
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param archive the archive
+     * @return the content of the manifest, or {@code null} if the archive does not contain one
+     * @throws IOException if the archive cannot be read
+     */
+    @CheckForNull
+    public static byte[] readManifest(@Nonnull File archive) throws IOException {
+        return readEntry(archive, JarFile.MANIFEST_NAME);
+    }
+}
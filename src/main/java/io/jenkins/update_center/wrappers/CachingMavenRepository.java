@@ -0,0 +1,41 @@
+package io.jenkins.update_center.wrappers;
+
+import hudson.util.VersionNumber;
+import io.jenkins.update_center.JenkinsWar;
+import io.jenkins.update_center.Plugin;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.TreeMap;
+
+/**
+ * Delegating {@link MavenRepositoryWrapper} remembering the plugins and core releases listed by the wrapped repository,
+ * so that update sites generated from the same selection of plugins do not need to evaluate it again.
+ *
+ * The wrapped repository is not expected to change its content while this is in use.
+ */
+public class CachingMavenRepository extends MavenRepositoryWrapper {
+
+    private Collection<Plugin> plugins;
+
+    private TreeMap<VersionNumber, JenkinsWar> wars;
+
+    @Override
+    public synchronized Collection<Plugin> listJenkinsPlugins() throws IOException {
+        if (plugins == null) {
+            plugins = Collections.unmodifiableList(new ArrayList<>(base.listJenkinsPlugins()));
+        }
+        return plugins;
+    }
+
+    @Override
+    public synchronized TreeMap<VersionNumber, JenkinsWar> getJenkinsWarsByVersionNumber() throws IOException {
+        if (wars == null) {
+            wars = base.getJenkinsWarsByVersionNumber();
+        }
+        // Callers like StableWarMavenRepository modify the result
+        return new TreeMap<>(wars);
+    }
+}
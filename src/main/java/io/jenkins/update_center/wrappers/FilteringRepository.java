@@ -1,6 +1,5 @@
 package io.jenkins.update_center.wrappers;
 
-import hudson.util.VersionNumber;
 import io.jenkins.update_center.PluginFilter;
 import io.jenkins.update_center.HPI;
 import io.jenkins.update_center.Plugin;
@@ -9,9 +8,7 @@ import javax.annotation.Nonnull;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 
 public class FilteringRepository extends MavenRepositoryWrapper {
 
@@ -27,26 +24,25 @@ public class FilteringRepository extends MavenRepositoryWrapper {
 
     @Override
     public Collection<Plugin> listJenkinsPlugins() throws IOException {
-        Collection<Plugin> r = base.listJenkinsPlugins();
-        for (Iterator<Plugin> jtr = r.iterator(); jtr.hasNext();) {
-            Plugin h = jtr.next();
-
-            for (Iterator<Map.Entry<VersionNumber, HPI>> itr = h.getArtifacts().entrySet().iterator(); itr.hasNext();) {
-                Map.Entry<VersionNumber, HPI> e = itr.next();
-                for (PluginFilter filter : pluginFilters) {
-                    if (filter.shouldIgnore(e.getValue())) {
-                        itr.remove();
-                    }
-                }
-            }
-
-            if (h.getArtifacts().isEmpty())
-                jtr.remove();
+        List<Plugin> r = new ArrayList<>();
+        for (Plugin h : base.listJenkinsPlugins()) {
+            Plugin filtered = h.filter(this::isIncluded);
+            if (!filtered.getArtifacts().isEmpty())
+                r.add(filtered);
         }
 
         return r;
     }
 
+    private boolean isIncluded(HPI hpi) {
+        for (PluginFilter filter : pluginFilters) {
+            if (filter.shouldIgnore(hpi)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public FilteringRepository withPluginFilter(PluginFilter pluginFilter) {
         addPluginFilter(pluginFilter);
         return this;
@@ -59,6 +59,11 @@ public class MavenRepositoryWrapper implements MavenRepository {
         return base.resolve(artifact);
     }
 
+    @Override
+    public void prefetch(Collection<Plugin> plugins) throws IOException {
+        base.prefetch(plugins);
+    }
+
     @Override
     public Collection<Plugin> listJenkinsPlugins() throws IOException {
         return base.listJenkinsPlugins();
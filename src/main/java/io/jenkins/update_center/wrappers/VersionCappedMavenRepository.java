@@ -5,11 +5,13 @@ import io.jenkins.update_center.JenkinsWar;
 import io.jenkins.update_center.BaseMavenRepository;
 import io.jenkins.update_center.HPI;
 import io.jenkins.update_center.Plugin;
+import io.jenkins.update_center.util.VersionNumbers;
 
 import javax.annotation.CheckForNull;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.TreeMap;
@@ -48,11 +50,9 @@ public class VersionCappedMavenRepository extends MavenRepositoryWrapper {
 
     @Override
     public Collection<Plugin> listJenkinsPlugins() throws IOException {
-        Collection<Plugin> r = base.listJenkinsPlugins();
-
-        for (Iterator<Plugin> jtr = r.iterator(); jtr.hasNext();) {
-            Plugin h = jtr.next();
+        List<Plugin> r = new ArrayList<>();
 
+        for (Plugin h : base.listJenkinsPlugins()) {
 
             Map<VersionNumber, HPI> versionNumberHPIMap = new TreeMap<>(VersionNumber.DESCENDING);
 
@@ -66,7 +66,7 @@ public class VersionCappedMavenRepository extends MavenRepositoryWrapper {
                     continue;
                 }
                 try {
-                    VersionNumber v = new VersionNumber(e.getValue().getRequiredJenkinsVersion());
+                    VersionNumber v = VersionNumbers.parse(e.getValue().getRequiredJenkinsVersion());
                     if (v.compareTo(capPlugin) <= 0) {
                         versionNumberHPIMap.put(e.getKey(), e.getValue());
                         if (versionNumberHPIMap.size() >= 2) {
@@ -78,10 +78,8 @@ public class VersionCappedMavenRepository extends MavenRepositoryWrapper {
                 }
             }
 
-            h.getArtifacts().entrySet().retainAll(versionNumberHPIMap.entrySet());
-
-            if (h.getArtifacts().isEmpty())
-                jtr.remove();
+            if (!versionNumberHPIMap.isEmpty())
+                r.add(h.filter(versionNumberHPIMap::containsValue));
         }
 
         return r;
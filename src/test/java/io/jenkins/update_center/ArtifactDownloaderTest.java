@@ -0,0 +1,79 @@
+package io.jenkins.update_center;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ArtifactDownloaderTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void testConcurrentRequestsShareDownload() throws Exception {
+        MockWebServer server = new MockWebServer();
+        server.enqueue(new MockResponse().setBody("content").setBodyDelay(200, TimeUnit.MILLISECONDS));
+        server.start();
+
+        ArtifactDownloader downloader = new ArtifactDownloader();
+        final String url = server.url("/file").toString();
+        final File target = new File(tmp.getRoot(), "nested/file");
+        Future<File> first = downloader.downloadAsync(url, target);
+        Future<File> second = downloader.downloadAsync(url, target);
+        assertEquals(target, first.get());
+        assertEquals(target, second.get());
+        assertEquals("content", FileUtils.readFileToString(target, StandardCharsets.UTF_8));
+        assertEquals(1, server.getRequestCount());
+
+        // already downloaded
+        assertEquals(target, downloader.download(url, target));
+        assertEquals(1, server.getRequestCount());
+        server.shutdown();
+    }
+
+    @Test
+    public void testErrorResponse() throws Exception {
+        MockWebServer server = new MockWebServer();
+        server.enqueue(new MockResponse().setResponseCode(404));
+        server.start();
+
+        final File target = new File(tmp.getRoot(), "missing");
+        assertTrue(new ArtifactDownloader().download(server.url("/missing").toString(), target).isDirectory());
+        server.shutdown();
+    }
+
+    @Test
+    public void testChecksumVerification() throws Exception {
+        MockWebServer server = new MockWebServer();
+        server.enqueue(new MockResponse().setBody("content"));
+        server.enqueue(new MockResponse().setBody("tampered"));
+        server.start();
+
+        ArtifactDownloader downloader = new ArtifactDownloader();
+        final byte[] sha256 = DigestUtils.sha256("content");
+        final File good = new File(tmp.getRoot(), "good");
+        assertEquals(good, downloader.download(server.url("/good").toString(), good, sha256));
+        assertTrue(good.isFile());
+
+        final File bad = new File(tmp.getRoot(), "bad");
+        try {
+            downloader.download(server.url("/bad").toString(), bad, sha256);
+            fail("expected checksum mismatch");
+        } catch (IOException expected) {
+            assertFalse(bad.exists());
+        }
+        server.shutdown();
+    }
+}
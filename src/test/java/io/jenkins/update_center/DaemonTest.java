@@ -0,0 +1,102 @@
+package io.jenkins.update_center;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class DaemonTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private final BlockingQueue<Integer> cycles = new LinkedBlockingQueue<>();
+
+    private Daemon daemon;
+    private Thread thread;
+
+    private void start(Daemon daemon, boolean fail) throws Exception {
+        this.daemon = daemon;
+        daemon.start();
+        thread = new Thread(() -> {
+            try {
+                daemon.run(() -> {
+                    cycles.add(cycles.size());
+                    if (fail) {
+                        throw new IllegalStateException("failed");
+                    }
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.start();
+        assertNextCycle();
+    }
+
+    private void assertNextCycle() throws InterruptedException {
+        assertNotNull("Generation started", cycles.poll(30, TimeUnit.SECONDS));
+    }
+
+    @After
+    public void stop() throws Exception {
+        if (daemon != null) {
+            daemon.stop();
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+            assertFalse(thread.isAlive());
+        }
+    }
+
+    @Test
+    public void testTriggerFile() throws Exception {
+        final File trigger = new File(tmp.getRoot(), "trigger");
+        start(new Daemon(null, trigger, null), false);
+        assertNull(cycles.poll(2, TimeUnit.SECONDS));
+
+        assertTrue(trigger.createNewFile());
+        assertNextCycle();
+        assertTrue(trigger.setLastModified(trigger.lastModified() + 10000));
+        assertNextCycle();
+
+        assertTrue(trigger.delete());
+        assertNull("Deleting the trigger file does not trigger generation", cycles.poll(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testHttp() throws Exception {
+        start(new Daemon(0, null, null), true);
+
+        final OkHttpClient client = new OkHttpClient();
+        final String url = "http://localhost:" + daemon.getPort();
+        try (Response response = client.newCall(new Request.Builder().url(url + "/regenerate").build()).execute()) {
+            assertEquals(405, response.code());
+        }
+        try (Response response = client.newCall(new Request.Builder().url(url + "/regenerate").post(RequestBody.create("", MediaType.parse("text/plain"))).build()).execute()) {
+            assertEquals(202, response.code());
+        }
+        assertNextCycle();
+
+        JSONObject status;
+        do {
+            try (Response response = client.newCall(new Request.Builder().url(url + "/status").build()).execute()) {
+                assertEquals(200, response.code());
+                status = JSON.parseObject(response.body().string());
+            }
+        } while (status.getIntValue("cycles") < 2);
+        assertEquals("Failed generation does not stop the daemon", "java.lang.IllegalStateException: failed", status.getString("lastError"));
+    }
+}
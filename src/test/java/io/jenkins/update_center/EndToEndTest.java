@@ -0,0 +1,301 @@
+package io.jenkins.update_center;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import io.jenkins.update_center.json.UpdateCenterRoot;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the generator against a {@link StandInServer}.
+ * The size of the corpus and the response latency can be set using the system properties
+ * {@code endToEnd.plugins}, {@code endToEnd.versions}, {@code endToEnd.cores}, and {@code endToEnd.latency} (milliseconds).
+ */
+public class EndToEndTest {
+    private static final Logger LOGGER = Logger.getLogger(EndToEndTest.class.getName());
+
+    private static final int PLUGINS = Integer.getInteger("endToEnd.plugins", 20);
+    private static final int VERSIONS = Integer.getInteger("endToEnd.versions", 3);
+    private static final int CORES = Integer.getInteger("endToEnd.cores", 3);
+    private static final int LATENCY = Integer.getInteger("endToEnd.latency", 0);
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private StandInServer server;
+
+    @Before
+    public void startServer() throws Exception {
+        server = new StandInServer(SyntheticCorpus.generate(PLUGINS, VERSIONS, CORES), LATENCY).start();
+        for (Map.Entry<String, String> entry : server.getProperties().entrySet()) {
+            System.setProperty(entry.getKey(), entry.getValue());
+        }
+        System.setProperty("ARTIFACTORY_CACHEDIR", tmp.newFolder("cache").getPath());
+        resetSingletons();
+    }
+
+    @After
+    public void stopServer() throws Exception {
+        for (String key : server.getProperties().keySet()) {
+            System.clearProperty(key);
+        }
+        System.clearProperty("ARTIFACTORY_CACHEDIR");
+        resetSingletons();
+        server.close();
+    }
+
+    /**
+     * Discard data sources initialized by other tests, or from the stand-in server for other tests.
+     */
+    private static void resetSingletons() throws ReflectiveOperationException {
+        for (Class<?> clazz : new Class<?>[] { DefaultMavenRepositoryBuilder.class, GitHubSource.class, IssueTrackerSource.class, MaintainersSource.class, Popularities.class }) {
+            final Field field = clazz.getDeclaredField("instance");
+            field.setAccessible(true);
+            field.set(null, null);
+        }
+    }
+
+    @Test
+    public void testGenerate() throws Exception {
+        final File www = tmp.newFolder("www");
+        final File download = tmp.newFolder("download");
+
+        final long start = System.currentTimeMillis();
+        assertEquals(0, new Main().run(new String[] {
+                "--www-dir", www.getPath(),
+                "--downloads-directory", download.getPath(),
+                "--generate-release-history", "--generate-plugin-versions", "--generate-plugin-documentation-urls", "--generate-recent-releases"
+        }));
+        LOGGER.log(Level.INFO, "Generated update site for " + PLUGINS + " plugins in " + (System.currentTimeMillis() - start) + " ms with " + server.getRequestCount() + " requests");
+
+        final String updateCenterJson = FileUtils.readFileToString(new File(www, "update-center.actual.json"), StandardCharsets.UTF_8);
+        final String eol = System.getProperty("line.separator");
+        assertEquals("updateCenter.post(" + eol + updateCenterJson + eol + ");", FileUtils.readFileToString(new File(www, "update-center.json"), StandardCharsets.UTF_8));
+        final String html = FileUtils.readFileToString(new File(www, "update-center.json.html"), StandardCharsets.UTF_8);
+        assertTrue(html.startsWith("\uFEFF<!DOCTYPE html>"));
+        assertTrue(html.contains("JSON.stringify(" + eol + updateCenterJson + eol + "),'*');"));
+
+        final JSONObject updateCenter = JSON.parseObject(updateCenterJson);
+        assertEquals("2." + (200 + CORES - 1), updateCenter.getJSONObject("core").getString("version"));
+        final JSONObject plugins = updateCenter.getJSONObject("plugins");
+        assertEquals(PLUGINS, plugins.size());
+        final JSONObject plugin = plugins.getJSONObject(SyntheticCorpus.getPluginId(1));
+        assertEquals("1." + (VERSIONS - 1), plugin.getString("version"));
+        assertEquals("Synthetic Plugin 1", plugin.getString("title"));
+        assertEquals("https://github.com/jenkinsci/" + SyntheticCorpus.getPluginId(1) + "-plugin", plugin.getString("scm"));
+        assertEquals(SyntheticCorpus.getPluginId(0), plugin.getJSONArray("dependencies").getJSONObject(0).getString("name"));
+
+        final JSONObject pluginVersions = JSON.parseObject(FileUtils.readFileToString(new File(www, "plugin-versions.json"), StandardCharsets.UTF_8));
+        assertEquals(VERSIONS, pluginVersions.getJSONObject("plugins").getJSONObject(SyntheticCorpus.getPluginId(0)).size());
+
+        assertTrue(new File(www, "release-history.json").isFile());
+        assertTrue(new File(www, "recent-releases.json").isFile());
+        assertTrue(new File(www, "plugin-documentation-urls.json").isFile());
+
+        final JSONObject report = JSON.parseObject(FileUtils.readFileToString(new File(www.getParentFile(), "www-report.json"), StandardCharsets.UTF_8));
+        assertTrue(report.getJSONObject("phaseMillis").containsKey("update-center"));
+        assertTrue(report.getJSONObject("remoteFetches").containsKey("artifactory-aql"));
+        assertEquals(10, report.getJSONArray("slowestPlugins").size());
+        assertEquals(PLUGINS, report.getJSONObject("pipelineStages").getJSONObject("enrich").getIntValue("items"));
+        if (!System.getProperty("os.name").toLowerCase().contains("windows")) {
+            assertTrue(new File(download, "plugins/" + SyntheticCorpus.getPluginId(0) + "/1.0/" + SyntheticCorpus.getPluginId(0) + ".hpi").isFile());
+        }
+    }
+
+    @Test
+    public void testFingerprint() throws Exception {
+        final File www = tmp.newFolder("www");
+        final File fingerprint = new File(tmp.getRoot(), "fingerprint.txt");
+        final File updateCenter = new File(www, "update-center.actual.json");
+
+        final String[] args = { "--www-dir", www.getPath(), "--fingerprint-file", fingerprint.getPath(), "--write-plugin-count" };
+        assertEquals(0, new Main().run(args));
+        assertTrue(fingerprint.isFile());
+
+        assertTrue(updateCenter.delete());
+        assertEquals(0, new Main().run(args));
+        assertFalse("Unchanged update site is skipped", updateCenter.exists());
+
+        assertEquals(0, new Main().run(new String[] { "--www-dir", www.getPath(), "--fingerprint-file", fingerprint.getPath() }));
+        assertTrue("Update site with changed options is generated", updateCenter.isFile());
+    }
+
+    @Test
+    public void testPlan() throws Exception {
+        final File www = tmp.newFolder("www");
+        final File download = tmp.newFolder("download");
+        final File planFile = new File(tmp.getRoot(), "plan.json");
+        final String[] args = { "--www-dir", www.getPath(), "--latest-links-directory", new File(www, "latest").getPath(), "--downloads-directory", download.getPath(), "--generate-plugin-versions" };
+        assertEquals(0, new Main().run(args));
+
+        final File updateCenter = new File(www, "update-center.actual.json");
+        final File pluginVersions = new File(www, "plugin-versions.json");
+        final File unrelated = new File(www, "unrelated.txt");
+        assertTrue(updateCenter.delete());
+        FileUtils.write(pluginVersions, "{}", StandardCharsets.UTF_8);
+        FileUtils.touch(unrelated);
+        final String[] planArgs = Arrays.copyOf(args, args.length + 3);
+        planArgs[args.length] = "--plan";
+        planArgs[args.length + 1] = "--plan-file";
+        planArgs[args.length + 2] = planFile.getPath();
+        try {
+            assertEquals(0, new Main().run(planArgs));
+        } finally {
+            Main.plan = false;
+            Main.planFile = null;
+        }
+        assertFalse("Nothing is written", updateCenter.exists());
+
+        final JSONObject plan = JSON.parseObject(FileUtils.readFileToString(planFile, StandardCharsets.UTF_8));
+        final Map<String, String> changes = new TreeMap<>();
+        for (Object change : plan.getJSONArray("changes")) {
+            changes.put(((JSONObject) change).getString("path"), ((JSONObject) change).getString("change"));
+        }
+        final Map<String, String> expected = new TreeMap<>();
+        expected.put(updateCenter.getAbsolutePath(), "added");
+        expected.put(pluginVersions.getAbsolutePath(), "modified");
+        expected.put(unrelated.getAbsolutePath(), "removed");
+        if (!System.getProperty("os.name").toLowerCase().contains("windows")) {
+            // download files are not written on Windows
+            assertEquals("Generation timestamps and unchanged files are ignored", expected, changes);
+        }
+        assertEquals(1, plan.getJSONObject("summary").getIntValue("removed"));
+    }
+
+    @Test
+    public void testPrecompress() throws Exception {
+        final File www = tmp.newFolder("www");
+        final File downloadLinks = tmp.newFolder("download-links");
+        final String[] args = { "--www-dir", www.getPath(), "--download-links-directory", downloadLinks.getPath(), "--generate-plugin-versions" };
+        final String[] precompressArgs = Arrays.copyOf(args, args.length + 1);
+        precompressArgs[args.length] = "--precompress";
+        try {
+            assertEquals(0, new Main().run(precompressArgs));
+        } finally {
+            Main.precompress = false;
+        }
+
+        for (String name : new String[] { "update-center.json", "update-center.actual.json", "update-center.json.html", "plugin-versions.json" }) {
+            final File file = new File(www, name);
+            try (InputStream is = new GZIPInputStream(new FileInputStream(file + ".gz"))) {
+                assertEquals(name, FileUtils.readFileToString(file, StandardCharsets.UTF_8), IOUtils.toString(is, StandardCharsets.UTF_8));
+            }
+        }
+        final File index = new File(downloadLinks, "plugins/" + SyntheticCorpus.getPluginId(0) + "/index.html");
+        try (InputStream is = new GZIPInputStream(new FileInputStream(index + ".gz"))) {
+            assertEquals(FileUtils.readFileToString(index, StandardCharsets.UTF_8), IOUtils.toString(is, StandardCharsets.UTF_8));
+        }
+
+        assertEquals(0, new Main().run(args));
+        assertFalse("Outdated compressed files are removed", new File(www, "update-center.json.gz").exists());
+        assertFalse("Outdated compressed files are removed", new File(index + ".gz").exists());
+    }
+
+    @Test
+    public void testArgumentsFile() throws Exception {
+        assertArgumentsFileOutput(1);
+    }
+
+    @Test
+    public void testArgumentsFileConcurrently() throws Exception {
+        try {
+            assertArgumentsFileOutput(4);
+        } finally {
+            Main.parallelUpdateSites = 1;
+        }
+    }
+
+    /**
+     * Asserts that update sites generated from an arguments file are the same as those generated by separate invocations.
+     */
+    private void assertArgumentsFileOutput(int parallelUpdateSites) throws Exception {
+        final List<String> sites = Arrays.asList(
+                "--limit-plugin-core-dependency 2.201 --write-latest-core --write-plugin-count --generate-plugin-versions --www-dir {root}/site0",
+                "--with-experimental --write-plugin-count --generate-recent-releases --www-dir {root}/site1 --downloads-directory {root}/download --latest-links-directory {root}/site1/latest",
+                "--write-latest-core --generate-release-history --generate-plugin-versions --generate-plugin-documentation-urls --www-dir {root}/site2 --downloads-directory {root}/download --latest-links-directory {root}/site2/latest",
+                "--limit-plugin-core-dependency 2.200 --skip-latest-plugin-release --www-dir {root}/site3");
+
+        final File combined = tmp.newFolder("combined");
+        final File separate = tmp.newFolder("separate");
+        final StringBuilder arguments = new StringBuilder("# one update site per line\n");
+        for (String site : sites) {
+            arguments.append(site.replace("{root}", combined.getPath())).append("\n");
+        }
+        final File argumentsFile = tmp.newFile("args.lst");
+        FileUtils.write(argumentsFile, arguments, StandardCharsets.UTF_8);
+        try {
+            assertEquals(0, new Main().run(new String[] { "--arguments-file", argumentsFile.getPath(), "--parallel-update-sites", Integer.toString(parallelUpdateSites) }));
+        } finally {
+            Main.argumentsFile = null;
+        }
+
+        for (String site : sites) {
+            assertEquals(0, new Main().run(site.replace("{root}", separate.getPath()).split(" ")));
+        }
+
+        final Collection<File> files = FileUtils.listFiles(separate, null, true);
+        assertFalse(files.isEmpty());
+        for (File expected : files) {
+            if (expected.getName().endsWith("-report.json")) {
+                // timing statistics
+                continue;
+            }
+            final File actual = new File(combined, separate.toPath().relativize(expected.toPath()).toString());
+            assertTrue("Generated " + actual, actual.isFile());
+            assertEquals("Content of " + actual, withoutGenerationTimestamp(expected), withoutGenerationTimestamp(actual));
+        }
+        assertEquals(files.size(), FileUtils.listFiles(combined, null, true).size());
+
+        int cachedPluginEntries = 0;
+        for (int i = 0; i < sites.size(); i++) {
+            cachedPluginEntries += JSON.parseObject(FileUtils.readFileToString(new File(combined, "site" + i + "-report.json"), StandardCharsets.UTF_8)).getIntValue("cachedPluginEntries");
+        }
+        assertTrue("Update sites offering the same releases share plugin entries", cachedPluginEntries > 0);
+    }
+
+    @Test
+    public void testPluginEntryCache() throws Exception {
+        final MavenRepository repo = DefaultMavenRepositoryBuilder.getInstance();
+        final LatestPluginVersions latestPluginVersions = LatestPluginVersions.create(repo);
+        final File warnings = new File(Main.resourcesDir, "warnings.json");
+        final String expected = encode(new UpdateCenterRoot(repo, warnings, latestPluginVersions, null));
+
+        final PluginUpdateCenterEntryCache cache = new PluginUpdateCenterEntryCache();
+        assertEquals(expected, encode(new UpdateCenterRoot(repo, warnings, latestPluginVersions, cache)));
+        assertEquals(PLUGINS, cache.size());
+        assertEquals("Plugin entries copied from the cache", expected, encode(new UpdateCenterRoot(repo, warnings, latestPluginVersions, cache)));
+    }
+
+    private static String encode(UpdateCenterRoot root) throws Exception {
+        return withoutGenerationTimestamp(root.encodeWithSignature(new Signer(), false));
+    }
+
+    private static String withoutGenerationTimestamp(File file) throws Exception {
+        return withoutGenerationTimestamp(FileUtils.readFileToString(file, StandardCharsets.UTF_8));
+    }
+
+    private static String withoutGenerationTimestamp(String json) {
+        return json.replaceAll("\"generationTimestamp\":\"[^\"]*\"", "");
+    }
+}
@@ -0,0 +1,97 @@
+package io.jenkins.update_center;
+
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.*;
+
+public class FilesystemRepositoryImplTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void testRepository() throws Exception {
+        final File root = tmp.getRoot();
+        final File hpi = new File(root, "org/jenkins-ci/plugins/example/1.0/example-1.0.hpi");
+        writeArchive(hpi, "Manifest-Version: 1.0\r\nShort-Name: example\r\n\r\n", "<div>Example</div>");
+        FileUtils.write(new File(hpi.getPath() + ".sha1"), DigestUtils.sha1Hex(FileUtils.readFileToByteArray(hpi)) + "  example-1.0.hpi\n", StandardCharsets.US_ASCII);
+        writeArchive(new File(root, "org/jenkins-ci/main/jenkins-war/2.0/jenkins-war-2.0.war"), "Manifest-Version: 1.0\r\n\r\n", null);
+        // classifier and unrelated files are ignored
+        FileUtils.touch(new File(root, "org/jenkins-ci/plugins/example/1.0/example-1.0-tests.hpi"));
+        FileUtils.touch(new File(root, "org/jenkins-ci/plugins/example/maven-metadata.xml"));
+
+        FilesystemRepositoryImpl repository = new FilesystemRepositoryImpl(root);
+        final ArtifactCoordinates plugin = new ArtifactCoordinates("org.jenkins-ci.plugins", "example", "1.0", "hpi");
+        assertEquals(Collections.singleton(plugin), repository.listAllPlugins());
+        assertEquals(1, repository.listAllJenkinsWars("org.jenkins-ci.main").size());
+        assertEquals(0, repository.listAllJenkinsWars("org.jvnet.hudson.main").size());
+
+        final MavenArtifact artifact = new MavenArtifact(repository, plugin);
+        final MavenRepository.ArtifactMetadata metadata = repository.getMetadata(artifact);
+        assertEquals(Base64.encodeBase64String(DigestUtils.sha1(FileUtils.readFileToByteArray(hpi))), metadata.sha1);
+        assertEquals(Base64.encodeBase64String(DigestUtils.sha256(FileUtils.readFileToByteArray(hpi))), metadata.sha256);
+        assertEquals(hpi.length(), metadata.size);
+
+        assertEquals("example", repository.getManifest(artifact).getMainAttributes().getValue("Short-Name"));
+        final MavenArtifact jar = new MavenArtifact(repository, new ArtifactCoordinates("org.jenkins-ci.plugins", "example", "1.0", "jar"));
+        try (InputStream is = repository.getZipFileEntry(jar, "index.jelly")) {
+            assertEquals("<div>Example</div>", IOUtils.toString(is, StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testRefresh() throws Exception {
+        final File root = tmp.getRoot();
+        writeArchive(new File(root, "org/jenkins-ci/plugins/one/1.0/one-1.0.hpi"), "Manifest-Version: 1.0\r\nShort-Name: one\r\n\r\n", null);
+        writeArchive(new File(root, "org/jenkins-ci/plugins/two/1.0/two-1.0.hpi"), "Manifest-Version: 1.0\r\nShort-Name: two\r\n\r\n", null);
+
+        FilesystemRepositoryImpl repository = new FilesystemRepositoryImpl(root);
+        final Plugin[] before = repository.listJenkinsPlugins().toArray(new Plugin[0]);
+        assertEquals(2, before.length);
+
+        writeArchive(new File(root, "org/jenkins-ci/plugins/two/1.1/two-1.1.hpi"), "Manifest-Version: 1.0\r\nShort-Name: two\r\n\r\n", null);
+        writeArchive(new File(root, "org/jenkins-ci/plugins/three/1.0/three-1.0.hpi"), "Manifest-Version: 1.0\r\nShort-Name: three\r\n\r\n", null);
+        assertEquals("Unchanged until refreshed", 2, repository.listJenkinsPlugins().size());
+
+        repository.refresh();
+        final Plugin[] after = repository.listJenkinsPlugins().toArray(new Plugin[0]);
+        assertEquals(3, after.length);
+        assertSame("Plugin without new releases is retained", before[0], after[0]);
+        assertEquals("three", after[1].getArtifactId());
+        assertNotSame(before[1], after[2]);
+        assertEquals("1.1", after[2].getLatest().version);
+    }
+
+    private static void writeArchive(File file, String manifest, String indexJelly) throws IOException {
+        assertTrue(file.getParentFile().mkdirs() || file.getParentFile().isDirectory());
+        try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(file))) {
+            zos.putNextEntry(new ZipEntry("META-INF/MANIFEST.MF"));
+            zos.write(manifest.getBytes(StandardCharsets.UTF_8));
+            if (indexJelly != null) {
+                ByteArrayOutputStream jar = new ByteArrayOutputStream();
+                try (ZipOutputStream jos = new ZipOutputStream(jar)) {
+                    jos.putNextEntry(new ZipEntry("index.jelly"));
+                    jos.write(indexJelly.getBytes(StandardCharsets.UTF_8));
+                }
+                zos.putNextEntry(new ZipEntry("WEB-INF/lib/example.jar"));
+                zos.write(jar.toByteArray());
+            }
+        }
+    }
+}
@@ -172,6 +172,28 @@ public class PluginTest extends TestCase {
         assertEquals("One artifact", 1, plugin.getArtifacts().size());
     }
 
+    public void testFilter() throws Exception {
+        Plugin plugin = new Plugin("foo");
+        TestRepository repository = new TestRepository();
+        final HPI older = registerAndAdd(repository, new ArtifactCoordinates("the-group", "foo", "1.0", "hpi"), plugin, 1);
+        final HPI newer = registerAndAdd(repository, new ArtifactCoordinates("the-group", "foo", "2.0-beta-1", "hpi"), plugin, 2);
+
+        final Plugin filtered = plugin.filter(hpi -> !hpi.isAlphaOrBeta());
+        assertEquals("foo", filtered.getArtifactId());
+        assertEquals("One artifact", 1, filtered.getArtifacts().size());
+        assertSame("Artifact shared", older, filtered.getLatest());
+        assertEquals("Original retained", 2, plugin.getArtifacts().size());
+        assertSame(newer, plugin.getLatest());
+        assertTrue("Empty view", plugin.filter(hpi -> false).getArtifacts().isEmpty());
+
+        try {
+            filtered.getArtifacts().clear();
+            fail("Artifacts should not be modifiable");
+        } catch (UnsupportedOperationException expected) {
+            // expected
+        }
+    }
+
     private static void assertMessageSubstringLogged(RecordingHandler handler, String message) {
         assertTrue("Message logged: " + message, handler.records.stream().anyMatch(it -> it.getMessage().contains(message)));
     }
@@ -0,0 +1,82 @@
+package io.jenkins.update_center;
+
+import io.jenkins.update_center.json.JsonSignature;
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class SignerTest {
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private Signer signer;
+
+    @Before
+    public void setUp() throws Exception {
+        signer = SigningKeys.createSigner(tmp.newFolder());
+    }
+
+    @Test
+    public void testConcurrentSigning() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<JsonSignature>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                final String document = "document-" + i;
+                futures.add(executor.submit(() -> {
+                    final Signer.Signing signing = signer.newSigning(document);
+                    try (OutputStream os = signing.getOutputStream()) {
+                        os.write(("{\"name\":\"" + document + "\"}").getBytes(StandardCharsets.UTF_8));
+                    }
+                    return signing.finish();
+                }));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                final JsonSignature expected = signer.sign("{\"name\":\"document-" + i + "\"}");
+                assertEquals(expected.getDigest512(), futures.get(i).get().getDigest512());
+                assertEquals(expected.getSignature512(), futures.get(i).get().getSignature512());
+                assertEquals(expected.getCertificates(), futures.get(i).get().getCertificates());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(16, signer.getSignedDocuments());
+        assertEquals(8, signer.getDocumentSigningNanos().size());
+        assertTrue(signer.getDocumentSigningNanos().containsKey("document-0"));
+    }
+
+    @Test
+    public void testKeyLoadedOnce() throws Exception {
+        final JsonSignature expected = signer.sign("{}");
+
+        final long lastModified = signer.privateKey.lastModified();
+        FileUtils.write(signer.privateKey, "not a key", StandardCharsets.US_ASCII);
+        assertTrue(signer.privateKey.setLastModified(lastModified));
+
+        final Signer other = new Signer();
+        other.privateKey = signer.privateKey;
+        other.certificates = signer.certificates;
+        assertEquals("Unmodified key is not read again", expected.getSignature512(), other.sign("{}").getSignature512());
+
+        assertTrue(signer.privateKey.setLastModified(lastModified - 10000));
+        try {
+            other.sign("{}");
+            fail("Modified key is read again");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().startsWith("Failed to load private key"));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package io.jenkins.update_center;
+
+import org.bouncycastle.jce.X509Principal;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.bouncycastle.openssl.PEMWriter;
+import org.bouncycastle.x509.X509V3CertificateGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Security;
+import java.security.cert.X509Certificate;
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates a private key and self-signed certificate to sign update site metadata with.
+ */
+public class SigningKeys {
+
+    /**
+     * Writes a new RSA private key and a self-signed certificate valid for a year into the specified directory.
+     *
+     * @param dir the directory to write the key and certificate to
+     * @return a signer using the key and certificate
+     * @throws GeneralSecurityException never, in practice
+     * @throws IOException when writing the files fails
+     */
+    public static Signer createSigner(File dir) throws GeneralSecurityException, IOException {
+        Security.addProvider(new BouncyCastleProvider());
+
+        final KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        final KeyPair keyPair = keyPairGenerator.generateKeyPair();
+
+        final X509Principal principal = new X509Principal("CN=Synthetic Update Site");
+        final X509V3CertificateGenerator certificateGenerator = new X509V3CertificateGenerator();
+        certificateGenerator.setSerialNumber(BigInteger.ONE);
+        certificateGenerator.setIssuerDN(principal);
+        certificateGenerator.setSubjectDN(principal);
+        certificateGenerator.setNotBefore(new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(1)));
+        certificateGenerator.setNotAfter(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(365)));
+        certificateGenerator.setPublicKey(keyPair.getPublic());
+        certificateGenerator.setSignatureAlgorithm("SHA256WithRSAEncryption");
+        final X509Certificate certificate = certificateGenerator.generate(keyPair.getPrivate(), "BC");
+
+        final File key = new File(dir, "update-site.key");
+        try (PEMWriter writer = new PEMWriter(Files.newBufferedWriter(key.toPath(), StandardCharsets.US_ASCII))) {
+            writer.writeObject(keyPair.getPrivate());
+        }
+        final File crt = new File(dir, "update-site.crt");
+        try (PEMWriter writer = new PEMWriter(Files.newBufferedWriter(crt.toPath(), StandardCharsets.US_ASCII))) {
+            writer.writeObject(certificate);
+        }
+
+        final Signer signer = new Signer();
+        signer.privateKey = key;
+        signer.certificates = Collections.singletonList(crt);
+        return signer;
+    }
+}
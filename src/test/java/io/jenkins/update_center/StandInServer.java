@@ -0,0 +1,134 @@
+package io.jenkins.update_center;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Local stand-in for Artifactory, GitHub GraphQL and the JSON reports the generator uses, serving a {@link SyntheticCorpus}.
+ *
+ * <p>{@link #getProperties()} lists the system properties pointing the generator at this server.</p>
+ */
+public class StandInServer extends Dispatcher implements Closeable {
+
+    private final MockWebServer server = new MockWebServer();
+    private final SyntheticCorpus corpus;
+    private final long latencyMillis;
+
+    /**
+     * @param corpus the content to serve
+     * @param latencyMillis the delay before each response
+     */
+    public StandInServer(SyntheticCorpus corpus, long latencyMillis) {
+        this.corpus = corpus;
+        this.latencyMillis = latencyMillis;
+        server.setDispatcher(this);
+    }
+
+    public StandInServer start() throws IOException {
+        server.start();
+        return this;
+    }
+
+    public int getRequestCount() {
+        return server.getRequestCount();
+    }
+
+    /**
+     * @return system properties to set so that the generator uses this server
+     */
+    public Map<String, String> getProperties() {
+        Map<String, String> ret = new LinkedHashMap<>();
+        ret.put("ARTIFACTORY_URL", server.url("/").toString());
+        ret.put("ARTIFACTORY_USERNAME", "user");
+        ret.put("ARTIFACTORY_PASSWORD", "password");
+        ret.put("GITHUB_GRAPHQL_URL", server.url("/graphql").toString());
+        ret.put("GITHUB_USERNAME", "user");
+        ret.put("GITHUB_PASSWORD", "password");
+        ret.put("PLUGIN_MAINTAINERS_DATA_URL", server.url("/maintainers.index.json").toString());
+        ret.put("MAINTAINERS_INFO_URL", server.url("/maintainers-info-report.json").toString());
+        ret.put("ISSUE_TRACKER_JSON_URL", server.url("/issues.index.json").toString());
+        ret.put("PLUGIN_POPULARITIES_JSON_URL", server.url("/latestNumbers.json").toString());
+        return ret;
+    }
+
+    @Override
+    public MockResponse dispatch(RecordedRequest request) {
+        final MockResponse response = respond(StringUtils.defaultString(request.getPath()));
+        if (latencyMillis > 0) {
+            response.setHeadersDelay(latencyMillis, TimeUnit.MILLISECONDS);
+        }
+        return response;
+    }
+
+    private MockResponse respond(String path) {
+        switch (path) {
+            case "/api/search/aql":
+                return json(corpus.getAqlResponse());
+            case "/graphql":
+                return json(corpus.getGitHubResponse());
+            case "/maintainers.index.json":
+                return json(corpus.getMaintainersResponse());
+            case "/maintainers-info-report.json":
+                return json(corpus.getMaintainersInfoResponse());
+            case "/issues.index.json":
+                return json(corpus.getIssueTrackersResponse());
+            case "/latestNumbers.json":
+                return json(corpus.getPopularitiesResponse());
+            default:
+                // fall through to repository content
+        }
+        if (!path.startsWith("/releases/")) {
+            return new MockResponse().setResponseCode(404);
+        }
+        final String repositoryPath = StringUtils.removeStart(path, "/releases/");
+        final String archivePath = StringUtils.substringBefore(repositoryPath, "!");
+        final SyntheticCorpus.Artifact artifact = corpus.getArtifact(archivePath);
+        if (artifact == null) {
+            return new MockResponse().setResponseCode(404);
+        }
+        if (!repositoryPath.contains("!")) {
+            return new MockResponse().setBody(new Buffer().write(artifact.content));
+        }
+        try {
+            final byte[] entry = readEntry(artifact.content, StringUtils.removeStart(StringUtils.substringAfter(repositoryPath, "!"), "/"));
+            return entry == null ? new MockResponse().setResponseCode(404) : new MockResponse().setBody(new Buffer().write(entry));
+        } catch (IOException e) {
+            return new MockResponse().setResponseCode(500);
+        }
+    }
+
+    private static byte[] readEntry(byte[] archive, String name) throws IOException {
+        try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(archive))) {
+            ZipEntry entry;
+            while ((entry = zis.getNextEntry()) != null) {
+                if (entry.getName().equals(name)) {
+                    return IOUtils.toByteArray(zis);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static MockResponse json(String body) {
+        return new MockResponse().setHeader("Content-Type", "application/json; charset=utf-8").setBody(body);
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.shutdown();
+    }
+}
@@ -0,0 +1,274 @@
+package io.jenkins.update_center;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Deterministically generated set of plugin and core releases, with the data external sources provide about them.
+ * Used to run the generator without access to the real repository and services, see {@link StandInServer}.
+ */
+public class SyntheticCorpus {
+
+    public static final String PLUGIN_GROUP_ID = "io.jenkins.plugins.synthetic";
+    public static final String CORE_GROUP_ID = "org.jenkins-ci.main";
+
+    private static final long FIRST_RELEASE = Instant.parse("2020-01-01T00:00:00Z").toEpochMilli();
+
+    public static class Artifact {
+        public final ArtifactCoordinates coordinates;
+        public final byte[] content;
+        public final long timestamp;
+
+        private Artifact(ArtifactCoordinates coordinates, byte[] content, long timestamp) {
+            this.coordinates = coordinates;
+            this.content = content;
+            this.timestamp = timestamp;
+        }
+
+        public String getPath() {
+            final ArtifactCoordinates a = coordinates;
+            return a.groupId.replace('.', '/') + "/" + a.artifactId + "/" + a.version + "/" + a.artifactId + "-" + a.version + "." + a.packaging;
+        }
+    }
+
+    /**
+     * All files, keyed by path in Maven repository layout.
+     */
+    private final Map<String, Artifact> files = new LinkedHashMap<>();
+    private final int plugins;
+
+    private SyntheticCorpus(int plugins) {
+        this.plugins = plugins;
+    }
+
+    /**
+     * @param plugins the number of plugins
+     * @param versionsPerPlugin the number of releases of each plugin
+     * @param coreReleases the number of core releases
+     * @return the generated corpus
+     * @throws IOException never, in practice
+     */
+    public static SyntheticCorpus generate(int plugins, int versionsPerPlugin, int coreReleases) throws IOException {
+        SyntheticCorpus corpus = new SyntheticCorpus(plugins);
+        for (int i = 0; i < coreReleases; i++) {
+            final String version = "2." + (200 + i);
+            corpus.add(new ArtifactCoordinates(CORE_GROUP_ID, "jenkins-war", version, "war"),
+                    archive(manifest(Collections.singletonMap("Jenkins-Version", version)), null), FIRST_RELEASE + TimeUnit.DAYS.toMillis(i));
+        }
+        for (int p = 0; p < plugins; p++) {
+            final String artifactId = getPluginId(p);
+            for (int v = 0; v < versionsPerPlugin; v++) {
+                final String version = "1." + v;
+                final long timestamp = FIRST_RELEASE + TimeUnit.DAYS.toMillis(v) + TimeUnit.MINUTES.toMillis(p);
+
+                Map<String, String> attributes = new LinkedHashMap<>();
+                attributes.put("Short-Name", artifactId);
+                attributes.put("Long-Name", "Synthetic Plugin " + p);
+                attributes.put("Plugin-Version", version);
+                attributes.put("Group-Id", PLUGIN_GROUP_ID);
+                attributes.put("Jenkins-Version", "2." + (200 + Math.min(v, Math.max(coreReleases - 1, 0))));
+                attributes.put("Minimum-Java-Version", "1.8");
+                if (p > 0) {
+                    attributes.put("Plugin-Dependencies", getPluginId(p - 1) + ":1.0" + (p % 3 == 0 ? ";resolution:=optional" : ""));
+                }
+                final byte[] jar = archive(manifest(attributes), "<div>Synthetic plugin " + p + ", release " + version + ".</div>");
+
+                corpus.add(new ArtifactCoordinates(PLUGIN_GROUP_ID, artifactId, version, "hpi"), archive(manifest(attributes), jar), timestamp);
+                corpus.add(new ArtifactCoordinates(PLUGIN_GROUP_ID, artifactId, version, "jar"), jar, timestamp);
+                corpus.add(new ArtifactCoordinates(PLUGIN_GROUP_ID, artifactId, version, "pom"), pom(p, artifactId, version), timestamp);
+            }
+        }
+        return corpus;
+    }
+
+    public static String getPluginId(int index) {
+        return String.format("synthetic-%04d", index);
+    }
+
+    private void add(ArtifactCoordinates coordinates, byte[] content, long timestamp) {
+        final Artifact artifact = new Artifact(coordinates, content, timestamp);
+        files.put(artifact.getPath(), artifact);
+    }
+
+    public Collection<Artifact> getArtifacts() {
+        return Collections.unmodifiableCollection(files.values());
+    }
+
+    /**
+     * @param path the path in Maven repository layout
+     * @return the file, or {@code null} if there is none
+     */
+    public Artifact getArtifact(String path) {
+        return files.get(path);
+    }
+
+    /**
+     * Writes all files in Maven repository layout, including checksum files.
+     *
+     * @param root the repository root directory
+     * @throws IOException when writing fails
+     */
+    public void writeTo(File root) throws IOException {
+        for (Artifact artifact : files.values()) {
+            final File file = new File(root, artifact.getPath());
+            FileUtils.writeByteArrayToFile(file, artifact.content);
+            FileUtils.write(new File(file.getPath() + ".sha1"), DigestUtils.sha1Hex(artifact.content), StandardCharsets.US_ASCII);
+            if (!file.setLastModified(artifact.timestamp)) {
+                throw new IOException("Failed to set modification time of " + file);
+            }
+        }
+    }
+
+    /**
+     * @return the response to an AQL query for all plugins and wars
+     */
+    public String getAqlResponse() {
+        JSONArray results = new JSONArray();
+        for (Artifact artifact : files.values()) {
+            final String packaging = artifact.coordinates.packaging;
+            if (!packaging.equals("hpi") && !packaging.equals("war")) {
+                continue;
+            }
+            final String path = artifact.getPath();
+            JSONObject o = new JSONObject(new LinkedHashMap<>());
+            o.put("repo", "releases");
+            o.put("path", path.substring(0, path.lastIndexOf('/')));
+            o.put("name", path.substring(path.lastIndexOf('/') + 1));
+            o.put("created", Instant.ofEpochMilli(artifact.timestamp).toString());
+            o.put("modified", Instant.ofEpochMilli(artifact.timestamp).toString());
+            o.put("size", artifact.content.length);
+            o.put("actual_sha1", DigestUtils.sha1Hex(artifact.content));
+            o.put("sha256", DigestUtils.sha256Hex(artifact.content));
+            results.add(o);
+        }
+        JSONObject response = new JSONObject();
+        response.put("results", results);
+        return response.toJSONString();
+    }
+
+    /**
+     * @return the response to the GitHub GraphQL query for repositories, as a single page
+     */
+    public String getGitHubResponse() {
+        JSONArray edges = new JSONArray();
+        for (int p = 0; p < plugins; p++) {
+            JSONObject topic = new JSONObject();
+            topic.put("node", Collections.singletonMap("topic", Collections.singletonMap("name", "jenkins-builder")));
+            JSONObject node = new JSONObject();
+            node.put("name", getPluginId(p) + "-plugin");
+            node.put("defaultBranchRef", Collections.singletonMap("name", "main"));
+            node.put("repositoryTopics", Collections.singletonMap("edges", p % 2 == 0 ? Collections.singletonList(topic) : Collections.emptyList()));
+            edges.add(Collections.singletonMap("node", node));
+        }
+        JSONObject pageInfo = new JSONObject();
+        pageInfo.put("startCursor", "start");
+        pageInfo.put("hasNextPage", false);
+        pageInfo.put("endCursor", "end");
+        JSONObject repositories = new JSONObject();
+        repositories.put("pageInfo", pageInfo);
+        repositories.put("edges", edges);
+        return JSON.toJSONString(Collections.singletonMap("data", Collections.singletonMap("organization", Collections.singletonMap("repositories", repositories))));
+    }
+
+    public String getMaintainersResponse() {
+        Map<String, Object> ret = new LinkedHashMap<>();
+        for (int p = 0; p < plugins; p++) {
+            ret.put(PLUGIN_GROUP_ID + ":" + getPluginId(p), Collections.singletonList("maintainer" + (p % 10)));
+        }
+        return JSON.toJSONString(ret);
+    }
+
+    public String getMaintainersInfoResponse() {
+        JSONArray ret = new JSONArray();
+        for (int i = 0; i < 10; i++) {
+            JSONObject maintainer = new JSONObject();
+            maintainer.put("name", "maintainer" + i);
+            maintainer.put("displayName", "Maintainer " + i);
+            ret.add(maintainer);
+        }
+        return ret.toJSONString();
+    }
+
+    public String getIssueTrackersResponse() {
+        Map<String, Object> ret = new LinkedHashMap<>();
+        for (int p = 0; p < plugins; p++) {
+            JSONObject tracker = new JSONObject();
+            tracker.put("type", "github");
+            tracker.put("viewUrl", "https://github.com/jenkinsci/" + getPluginId(p) + "-plugin/issues");
+            ret.put(getPluginId(p), Collections.singletonList(tracker));
+        }
+        return JSON.toJSONString(ret);
+    }
+
+    public String getPopularitiesResponse() {
+        Map<String, String> ret = new LinkedHashMap<>();
+        for (int p = 0; p < plugins; p++) {
+            ret.put(getPluginId(p), Integer.toString((plugins - p) * 100));
+        }
+        return JSON.toJSONString(Collections.singletonMap("plugins", ret));
+    }
+
+    private static Manifest manifest(Map<String, String> attributes) {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        attributes.forEach((k, v) -> manifest.getMainAttributes().putValue(k, v));
+        return manifest;
+    }
+
+    /**
+     * @param manifest the manifest
+     * @param content for a plugin jar, the content of {@code index.jelly}; for an HPI, the plugin jar; otherwise {@code null}
+     */
+    private static byte[] archive(Manifest manifest, Object content) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(baos)) {
+            zos.putNextEntry(new ZipEntry(JarFile.MANIFEST_NAME));
+            manifest.write(zos);
+            if (content instanceof String) {
+                zos.putNextEntry(new ZipEntry("index.jelly"));
+                zos.write(((String) content).getBytes(StandardCharsets.UTF_8));
+            } else if (content instanceof byte[]) {
+                zos.putNextEntry(new ZipEntry("WEB-INF/lib/" + manifest.getMainAttributes().getValue("Short-Name") + ".jar"));
+                zos.write((byte[]) content);
+            }
+        }
+        return baos.toByteArray();
+    }
+
+    private static byte[] pom(int index, String artifactId, String version) {
+        return ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n" +
+                "  <modelVersion>4.0.0</modelVersion>\n" +
+                "  <groupId>" + PLUGIN_GROUP_ID + "</groupId>\n" +
+                "  <artifactId>" + artifactId + "</artifactId>\n" +
+                "  <version>" + version + "</version>\n" +
+                "  <packaging>hpi</packaging>\n" +
+                "  <name>Synthetic Plugin " + index + "</name>\n" +
+                "  <description>Synthetic plugin " + index + "</description>\n" +
+                "  <url>https://github.com/jenkinsci/" + artifactId + "-plugin</url>\n" +
+                "  <scm>\n" +
+                "    <url>https://github.com/jenkinsci/" + artifactId + "-plugin</url>\n" +
+                "    <developerConnection>scm:git:git@github.com:jenkinsci/" + artifactId + "-plugin.git</developerConnection>\n" +
+                "  </scm>\n" +
+                "</project>\n").getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,83 @@
+package io.jenkins.update_center.benchmarks;
+
+import hudson.util.VersionNumber;
+import io.jenkins.update_center.ArtifactCoordinates;
+import io.jenkins.update_center.FilesystemRepositoryImpl;
+import io.jenkins.update_center.Plugin;
+import io.jenkins.update_center.SyntheticCorpus;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * A {@link SyntheticCorpus} written to a temporary directory, and a {@link FilesystemRepositoryImpl} reading it.
+ * The size of the corpus is configurable using the JMH parameters {@code plugins}, {@code versions}, and {@code cores}.
+ */
+@State(Scope.Benchmark)
+public class CorpusState {
+    private static final Logger PACKAGE_LOGGER = Logger.getLogger("io.jenkins.update_center");
+
+    @Param({"100", "1000"})
+    public int plugins;
+
+    @Param({"10"})
+    public int versions;
+
+    @Param({"20"})
+    public int cores;
+
+    public SyntheticCorpus corpus;
+    public File root;
+    public FilesystemRepositoryImpl repository;
+
+    /**
+     * All plugin releases in the repository.
+     */
+    public List<ArtifactCoordinates> coordinates;
+
+    /**
+     * All plugins in the repository.
+     */
+    public Collection<Plugin> pluginList;
+
+    /**
+     * Core dependency cap halfway through the core releases, so that it affects about half of the plugin releases.
+     */
+    public VersionNumber cap;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        quietLogging();
+        corpus = SyntheticCorpus.generate(plugins, versions, cores);
+        root = Files.createTempDirectory("corpus").toFile();
+        corpus.writeTo(root);
+        repository = new FilesystemRepositoryImpl(root);
+        coordinates = new ArrayList<>(repository.listAllPlugins());
+        pluginList = repository.listJenkinsPlugins();
+        cap = new VersionNumber("2." + (200 + cores / 2));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(root);
+    }
+
+    /**
+     * The generator logs details about every plugin release at {@code INFO} level, which would dominate some benchmarks.
+     */
+    static void quietLogging() {
+        PACKAGE_LOGGER.setLevel(java.util.logging.Level.SEVERE);
+    }
+}
@@ -0,0 +1,81 @@
+package io.jenkins.update_center.benchmarks;
+
+import io.jenkins.update_center.HPI;
+import io.jenkins.update_center.IndexHtmlBuilder;
+import io.jenkins.update_center.IndexTemplateProvider;
+import io.jenkins.update_center.Plugin;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.owasp.html.HtmlSanitizer;
+import org.owasp.html.HtmlStreamRenderer;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sanitizing plugin descriptions and rendering download index pages.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Dfile.encoding=UTF-8")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class HtmlBenchmark {
+
+    /**
+     * A longer than usual plugin description, with markup that is kept, changed, and removed.
+     */
+    private static final String DESCRIPTION = repeat("<div>This plugin integrates <strong>Jenkins</strong> with <a href=\"https://example.org/\">an example service</a>."
+            + "<ul><li>First <em>feature</em></li><li>Second feature<img src=x onerror=alert(1)></li></ul>"
+            + "<a href=\"https://example.org/docs\" target=\"_blank\">Documentation</a><script>alert(1)</script></div>\n", 20);
+
+    private static String repeat(String s, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.append(s);
+        }
+        return sb.toString();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public String sanitizeDescription() {
+        StringBuilder b = new StringBuilder();
+        HtmlStreamRenderer renderer = HtmlStreamRenderer.create(b, Throwable::printStackTrace, html -> {});
+        HtmlSanitizer.sanitize(DESCRIPTION, HPI.HTML_POLICY.apply(renderer), HPI.PRE_PROCESSOR);
+        return b.toString();
+    }
+
+    /**
+     * Reads and sanitizes the description of the latest release of every plugin, using new {@link HPI} instances
+     * so that descriptions are not cached.
+     */
+    @Benchmark
+    public void getDescription(CorpusState state, Blackhole blackhole) throws IOException {
+        for (Plugin plugin : state.pluginList) {
+            blackhole.consume(new HPI(state.repository, plugin.getLatest().artifact, plugin).getDescription());
+        }
+    }
+
+    /**
+     * Renders the download index page of every plugin, discarding the output.
+     */
+    @Benchmark
+    public void indexHtml(CorpusState state) throws IOException {
+        final IndexTemplateProvider templateProvider = new IndexTemplateProvider();
+        for (Plugin plugin : state.pluginList) {
+            try (IndexHtmlBuilder index = templateProvider.newIndexHtmlBuilder(null, plugin.getArtifactId()).withSubtitle(plugin.getArtifactId())) {
+                index.add("/latest/" + plugin.getArtifactId() + ".hpi", "permalink to the latest");
+                for (HPI hpi : plugin.getArtifacts().values()) {
+                    index.add(hpi);
+                }
+            }
+        }
+    }
+}
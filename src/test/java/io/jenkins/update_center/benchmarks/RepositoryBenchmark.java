@@ -0,0 +1,71 @@
+package io.jenkins.update_center.benchmarks;
+
+import io.jenkins.update_center.ArtifactCoordinates;
+import io.jenkins.update_center.FilesystemRepositoryImpl;
+import io.jenkins.update_center.HPI;
+import io.jenkins.update_center.MavenArtifact;
+import io.jenkins.update_center.MavenRepository;
+import io.jenkins.update_center.Plugin;
+import io.jenkins.update_center.wrappers.VersionCappedMavenRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the list of plugins from the releases in a repository, and deriving filtered views from it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Dfile.encoding=UTF-8")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RepositoryBenchmark {
+
+    /**
+     * Lists plugins in a new repository whose files and metadata have already been read, so only the plugin list is built.
+     */
+    @Benchmark
+    public Collection<Plugin> listJenkinsPlugins(CorpusState state) throws IOException {
+        return new FilesystemRepositoryImpl(state.root) {
+            @Override
+            public Collection<ArtifactCoordinates> listAllPlugins() {
+                return state.coordinates;
+            }
+
+            @Override
+            public ArtifactMetadata getMetadata(MavenArtifact artifact) throws IOException {
+                return state.repository.getMetadata(artifact);
+            }
+        }.listJenkinsPlugins();
+    }
+
+    /**
+     * Adds every release of every plugin twice, so that each release is also compared to an existing one.
+     */
+    @Benchmark
+    public void addArtifact(CorpusState state, Blackhole blackhole) throws IOException {
+        for (Plugin plugin : state.pluginList) {
+            final Plugin copy = new Plugin(plugin.getArtifactId());
+            for (HPI hpi : plugin.getArtifacts().values()) {
+                copy.addArtifact(hpi);
+                copy.addArtifact(hpi);
+            }
+            blackhole.consume(copy);
+        }
+    }
+
+    @Benchmark
+    public Collection<Plugin> versionCapped(CorpusState state) throws IOException {
+        final MavenRepository repository = new VersionCappedMavenRepository(state.cap, null).withBaseRepository(state.repository);
+        return repository.listJenkinsPlugins();
+    }
+}
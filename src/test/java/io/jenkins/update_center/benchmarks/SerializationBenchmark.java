@@ -0,0 +1,74 @@
+package io.jenkins.update_center.benchmarks;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import io.jenkins.update_center.LatestPluginVersions;
+import io.jenkins.update_center.Main;
+import io.jenkins.update_center.StandInServer;
+import io.jenkins.update_center.json.PluginVersionsRoot;
+import io.jenkins.update_center.json.UpdateCenterRoot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializing the update center and plugin versions JSON files, with all data already loaded.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Dfile.encoding=UTF-8")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SerializationBenchmark {
+
+    /**
+     * The JSON roots for the corpus, with the data from other sources served by a {@link StandInServer}.
+     */
+    @State(Scope.Benchmark)
+    public static class Roots {
+        private StandInServer server;
+
+        public UpdateCenterRoot updateCenterRoot;
+        public PluginVersionsRoot pluginVersionsRoot;
+
+        @Setup(Level.Trial)
+        public void setUp(CorpusState corpus) throws IOException {
+            server = new StandInServer(corpus.corpus, 0).start();
+            for (Map.Entry<String, String> entry : server.getProperties().entrySet()) {
+                System.setProperty(entry.getKey(), entry.getValue());
+            }
+            updateCenterRoot = new UpdateCenterRoot(corpus.repository, new File(Main.resourcesDir, "warnings.json"), LatestPluginVersions.create(corpus.repository));
+            pluginVersionsRoot = new PluginVersionsRoot("1", corpus.repository);
+            pluginVersionsRoot.getPlugins();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            server.close();
+        }
+    }
+
+    @Benchmark
+    public String updateCenter(Roots roots) {
+        return JSON.toJSONString(roots.updateCenterRoot, SerializerFeature.DisableCircularReferenceDetect);
+    }
+
+    @Benchmark
+    public String pluginVersions(Roots roots) {
+        return JSON.toJSONString(roots.pluginVersionsRoot, SerializerFeature.DisableCircularReferenceDetect);
+    }
+}
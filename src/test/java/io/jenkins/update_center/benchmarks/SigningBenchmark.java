@@ -0,0 +1,68 @@
+package io.jenkins.update_center.benchmarks;
+
+import io.jenkins.update_center.Signer;
+import io.jenkins.update_center.SigningKeys;
+import io.jenkins.update_center.json.JsonSignature;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signing JSON documents of the size of the update center JSON files, with a self-signed certificate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Dfile.encoding=UTF-8")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class SigningBenchmark {
+
+    @Param({"1", "4", "16"})
+    public int megabytes;
+
+    private File dir;
+    private Signer signer;
+    private String json;
+
+    @Setup(Level.Trial)
+    public void setUp() throws GeneralSecurityException, IOException {
+        CorpusState.quietLogging();
+        dir = Files.createTempDirectory("signing").toFile();
+        signer = SigningKeys.createSigner(dir);
+
+        final StringBuilder sb = new StringBuilder("{\"plugins\":{");
+        for (int i = 0; sb.length() < megabytes * 1024 * 1024; i++) {
+            sb.append(i == 0 ? "" : ",").append("\"plugin-").append(i).append("\":{\"name\":\"plugin-").append(i)
+                    .append("\",\"version\":\"1.").append(i).append("\",\"title\":\"Plugin ").append(i).append(" \\u00e9\"}");
+        }
+        json = sb.append("}}").toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(dir);
+    }
+
+    @Benchmark
+    public JsonSignature sign() throws GeneralSecurityException, IOException {
+        return signer.sign(json);
+    }
+}
@@ -0,0 +1,101 @@
+package io.jenkins.update_center.json;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.annotation.JSONField;
+import com.alibaba.fastjson.serializer.JavaBeanSerializer;
+import com.alibaba.fastjson.serializer.SerializeConfig;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import io.jenkins.update_center.Signer;
+import io.jenkins.update_center.SigningKeys;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+public class WithSignatureTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Signer signer;
+
+    @Before
+    public void setUp() throws Exception {
+        signer = SigningKeys.createSigner(folder.newFolder());
+    }
+
+    @Test
+    public void testSignatureBetweenProperties() throws Exception {
+        assertSameAsSerializingTwice(new Root());
+    }
+
+    @Test
+    public void testSignatureLast() throws Exception {
+        assertSameAsSerializingTwice(new LastRoot());
+    }
+
+    @Test
+    public void testProductionSerializer() {
+        // fixtures are serialized like the public roots generated in production, not with the reflection fallback
+        assertNotSame(JavaBeanSerializer.class, SerializeConfig.getGlobalInstance().getObjectWriter(Root.class).getClass());
+        assertNotSame(JavaBeanSerializer.class, SerializeConfig.getGlobalInstance().getObjectWriter(LastRoot.class).getClass());
+    }
+
+    @Test
+    public void testPretty() throws Exception {
+        final Root root = new Root();
+        final String json = root.encodeWithSignature(signer, true);
+        assertEquals(JSON.toJSONString(root, SerializerFeature.DisableCircularReferenceDetect, SerializerFeature.PrettyFormat), json);
+        assertValidSignature(root, JSON.toJSONString(root, SerializerFeature.DisableCircularReferenceDetect));
+    }
+
+    @Test
+    public void testUnsigned() throws Exception {
+        final Root root = new Root();
+        final String json = root.encodeWithSignature(new Signer(), false);
+        assertNull(root.getSignature());
+        assertEquals(JSON.toJSONString(root, SerializerFeature.DisableCircularReferenceDetect), json);
+    }
+
+    private void assertSameAsSerializingTwice(WithSignature root) throws Exception {
+        final String json = root.encodeWithSignature(signer, false);
+        assertNotNull(root.getSignature());
+        assertEquals(JSON.toJSONString(root, SerializerFeature.DisableCircularReferenceDetect), json);
+        assertValidSignature(root, json);
+    }
+
+    private void assertValidSignature(WithSignature root, String json) throws Exception {
+        final String signatureJson = "\"signature\":" + JSON.toJSONString(root.getSignature(), SerializerFeature.DisableCircularReferenceDetect);
+        assertTrue(json.contains(signatureJson));
+        final String unsigned = json.replace("," + signatureJson, "");
+        final JsonSignature expected = signer.sign(unsigned);
+        assertEquals(expected.getDigest512(), root.getSignature().getDigest512());
+        assertEquals(expected.getSignature512(), root.getSignature().getSignature512());
+    }
+
+    public static class Root extends WithSignature {
+        @JSONField
+        public String connectionCheckUrl = "http://www.google.com/";
+
+        @JSONField
+        public Map<String, String> plugins = new TreeMap<>();
+
+        @JSONField
+        public String updateCenterVersion = "1";
+
+        public Root() {
+            for (int i = 0; i < 10000; i++) {
+                plugins.put("plugin-" + i, "Plugin é 𝄞 " + i);
+            }
+        }
+    }
+
+    public static class LastRoot extends WithSignature {
+        @JSONField
+        public String id = "default";
+    }
+}
@@ -0,0 +1,42 @@
+package io.jenkins.update_center.util;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class ContentCacheTest {
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() throws Exception {
+        ContentCache cache = new ContentCache(100);
+        cache.put("a", new byte[40]); // weight 42
+        cache.put("b", new byte[40]); // weight 42
+        assertNotNull(cache.get("a")); // 'b' is now least recently used
+        cache.put("c", new byte[40]);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("a"));
+        assertNotNull(cache.get("c"));
+        assertEquals(3, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(84, cache.getWeight());
+    }
+
+    @Test
+    public void testOversizedAndReplacedValues() throws Exception {
+        ContentCache cache = new ContentCache(100);
+        cache.put("big", new byte[200]);
+        assertEquals(0, cache.size());
+
+        cache.put("a", "first".getBytes(StandardCharsets.UTF_8));
+        cache.put("a", "second".getBytes(StandardCharsets.UTF_8));
+        assertEquals(8, cache.getWeight());
+        assertEquals("second", IOUtils.toString(cache.getInputStream("a"), StandardCharsets.UTF_8));
+        assertNull(cache.getInputStream("missing"));
+    }
+}
@@ -0,0 +1,72 @@
+package io.jenkins.update_center.util;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+public class PipelineTest {
+
+    private static final List<Integer> INPUT = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+
+    @Test
+    public void testStages() throws Exception {
+        final Set<String> output = new TreeSet<>();
+        final Map<String, Pipeline.StageStatistics> statistics = Pipeline.<Integer>create(4)
+                .then("even", 3, i -> i % 2 == 0 ? i : null)
+                .then("format", 5, i -> "item-" + i)
+                .run(INPUT, output::add);
+
+        assertEquals(500, output.size());
+        assertTrue(output.contains("item-998"));
+        assertFalse(output.contains("item-999"));
+        assertEquals(1000, statistics.get("even").getItems());
+        assertEquals(500, statistics.get("format").getItems());
+        assertEquals(5, statistics.get("format").getThreads());
+    }
+
+    @Test
+    public void testBackpressure() throws Exception {
+        final AtomicInteger produced = new AtomicInteger();
+        final AtomicInteger maxAhead = new AtomicInteger();
+        final List<Integer> output = new ArrayList<>();
+        Pipeline.<Integer>create(2)
+                .then("produce", 4, i -> {
+                    maxAhead.accumulateAndGet(produced.incrementAndGet() - output.size(), Math::max);
+                    return i;
+                })
+                .run(INPUT, i -> {
+                    synchronized (output) {
+                        output.add(i);
+                    }
+                    Thread.yield();
+                });
+
+        assertEquals(1000, output.size());
+        // queue size, items being put by each thread, and one being consumed, with some leeway for unsynchronized reads
+        assertTrue("Produced at most a few items ahead: " + maxAhead.get(), maxAhead.get() <= 2 + 4 + 1 + 4);
+    }
+
+    @Test
+    public void testFailure() {
+        final IOException e = assertThrows(IOException.class, () -> Pipeline.<Integer>create(4)
+                .then("fail", 2, i -> {
+                    if (i == 500) {
+                        throw new IllegalStateException("failed");
+                    }
+                    return i;
+                })
+                .run(INPUT, i -> { }));
+        assertEquals("Failed to process item in stage fail", e.getMessage());
+        assertEquals("failed", e.getCause().getMessage());
+    }
+}
@@ -0,0 +1,45 @@
+package io.jenkins.update_center.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ThreadPoolsTest {
+
+    @Test
+    public void testConcurrency() throws Exception {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final ExecutorService executor = ThreadPools.newExecutor("test", 3);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 30; i++) {
+                futures.add(executor.submit(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Thread.sleep(10);
+                    running.decrementAndGet();
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue("At most 3 tasks at the same time: " + maxRunning.get(), maxRunning.get() <= 3);
+    }
+
+    @Test
+    public void testThreadFactory() {
+        final Thread thread = ThreadPools.newThreadFactory("test").newThread(() -> { });
+        assertEquals("test-1", thread.getName());
+        assertTrue(thread.isDaemon());
+    }
+}
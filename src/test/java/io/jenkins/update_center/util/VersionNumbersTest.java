@@ -0,0 +1,19 @@
+package io.jenkins.update_center.util;
+
+import hudson.util.VersionNumber;
+import io.jenkins.update_center.ArtifactCoordinates;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class VersionNumbersTest {
+    @Test
+    public void testCanonicalInstances() {
+        final VersionNumber version = VersionNumbers.parse("1.2.3");
+        Assert.assertSame(version, VersionNumbers.parse(new String("1.2.3")));
+        Assert.assertSame(version, new ArtifactCoordinates("the-group", "foo", "1.2.3", "hpi").getVersionNumber());
+        Assert.assertSame(version, new ArtifactCoordinates("the-other-group", "bar", "1.2.3", "war").getVersionNumber());
+        Assert.assertNotSame(version, VersionNumbers.parse("1.2.3.0"));
+        Assert.assertEquals(version, VersionNumbers.parse("1.2.3.0"));
+        Assert.assertTrue(VersionNumbers.parse("1.10").isNewerThan(VersionNumbers.parse("1.9")));
+    }
+}
@@ -0,0 +1,48 @@
+package io.jenkins.update_center.util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.*;
+
+public class ZipFileUtilTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void testReadEntries() throws Exception {
+        ByteArrayOutputStream jar = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(jar)) {
+            addEntry(zos, "index.jelly", "<div>Description</div>".getBytes(StandardCharsets.UTF_8));
+        }
+
+        File hpi = tmp.newFile("test.hpi");
+        try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(hpi))) {
+            addEntry(zos, "META-INF/MANIFEST.MF", "Manifest-Version: 1.0\r\n".getBytes(StandardCharsets.UTF_8));
+            addEntry(zos, "WEB-INF/lib/test.jar", jar.toByteArray());
+        }
+
+        assertEquals("Manifest-Version: 1.0\r\n", new String(ZipFileUtil.readManifest(hpi), StandardCharsets.UTF_8));
+        assertNotNull(ZipFileUtil.readEntry(hpi, "/WEB-INF/lib/test.jar"));
+        assertNull(ZipFileUtil.readEntry(hpi, "index.jelly"));
+        assertEquals("<div>Description</div>", new String(ZipFileUtil.readNestedEntry(hpi, "WEB-INF/lib/test.jar", "/index.jelly"), StandardCharsets.UTF_8));
+        assertNull(ZipFileUtil.readNestedEntry(hpi, "WEB-INF/lib/test.jar", "missing.txt"));
+        assertNull(ZipFileUtil.readNestedEntry(hpi, "WEB-INF/lib/other.jar", "index.jelly"));
+    }
+
+    private static void addEntry(ZipOutputStream zos, String name, byte[] content) throws IOException {
+        zos.putNextEntry(new ZipEntry(name));
+        zos.write(content);
+        zos.closeEntry();
+    }
+}